@@ -0,0 +1,170 @@
+package com.lestora.debug.bench;
+
+import com.lestora.debug.DebugDataParser;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Headless regression check for the F3 pipeline, run by the f3Check task (and so by "gradlew check"):
+ * <ul>
+ *   <li>Golden corpus: every {@link F3Fixtures} scene is parsed, and its datum map and both rebuilt columns are
+ *       compared with src/jmh/resources/golden/&lt;scene&gt;.txt. Between them the scenes show every built-in
+ *       handler. After an intended change, rewrite the files with {@code gradlew f3Check -Pgolden.update} and review
+ *       the diff.</li>
+ *   <li>Allocation budget: bytes allocated by this thread for one simulated frame (parse and rebuild both columns),
+ *       once with nothing changed and once with every line changed, must stay within the budgets set in
+ *       gradle.properties.</li>
+ * </ul>
+ * Exits with 1 if anything failed.
+ */
+public final class F3Check {
+    private static final List<String> SCENES = List.of(
+            F3Fixtures.OVERWORLD, F3Fixtures.NETHER, F3Fixtures.TARGET_BLOCK_TAGS, F3Fixtures.WAITING_FOR_CHUNK);
+    private static final String LEFT = "@@ left";
+    private static final String RIGHT = "@@ right";
+    private static final String DATUMS = "@@ datums";
+    private static final int WARMUP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 1_000;
+    private static final int ROUNDS = 3;
+
+    private F3Check() { }
+
+    /** Arguments: goldenDir [--update] [--budget-unchanged bytes] [--budget-changed bytes] */
+    public static void main(String[] args) throws IOException {
+        Path goldenDir = Path.of(args[0]);
+        boolean update = false;
+        long unchangedBudget = 4096;
+        long changedBudget = 32768;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--update" -> update = true;
+                case "--budget-unchanged" -> unchangedBudget = Long.parseLong(args[++i]);
+                case "--budget-changed" -> changedBudget = Long.parseLong(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        F3Fixtures.installHandlers();
+        int failures = 0;
+        Set<String> datumKeys = new HashSet<>();
+        for (String scene : SCENES) {
+            List<String> actual = render(scene, datumKeys);
+            Path golden = goldenDir.resolve(scene + ".txt");
+            if (update) {
+                Files.createDirectories(goldenDir);
+                Files.write(golden, actual, StandardCharsets.UTF_8);
+                System.out.println("Wrote " + golden);
+            } else if (!Files.exists(golden)) {
+                System.out.println("FAIL " + scene + ": no golden file at " + golden);
+                failures++;
+            } else {
+                failures += compare(scene, Files.readAllLines(golden, StandardCharsets.UTF_8), actual);
+            }
+        }
+        for (String lineKey : builtinLines()) {
+            if (datumKeys.stream().noneMatch(key -> key.startsWith(lineKey + "."))) {
+                System.out.println("note: no scene has datums for " + lineKey);
+            }
+        }
+
+        for (String scene : SCENES) {
+            long[] bytes = measureFrame(scene);
+            failures += checkBudget(scene, "unchanged frame", bytes[0], unchangedBudget);
+            failures += checkBudget(scene, "changed frame", bytes[1], changedBudget);
+        }
+
+        if (failures > 0) {
+            System.out.println(failures + " F3 check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("F3 checks passed");
+    }
+
+    // the scene's datum map and rebuilt columns, in golden file form
+    private static List<String> render(String scene, Set<String> datumKeys) {
+        DebugDataParser.invalidateLineCache();
+        List<String> out = new ArrayList<>();
+        out.add(LEFT);
+        DebugDataParser.parse(F3Fixtures.left(scene));
+        out.addAll(DebugDataParser.getLeftValues());
+        out.add(RIGHT);
+        DebugDataParser.parse(F3Fixtures.right(scene));
+        out.addAll(DebugDataParser.getRightValues());
+        out.add(DATUMS);
+        new TreeMap<>(DebugDataParser.data).forEach((key, value) -> {
+            out.add(key + "=" + value);
+            datumKeys.add(key);
+        });
+        return out;
+    }
+
+    private static int compare(String scene, List<String> expected, List<String> actual) {
+        if (expected.equals(actual)) {
+            System.out.println("ok   " + scene + ": matches golden output");
+            return 0;
+        }
+        System.out.println("FAIL " + scene + ": differs from golden output");
+        String section = "";
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            String want = i < expected.size() ? expected.get(i) : null;
+            String got = i < actual.size() ? actual.get(i) : null;
+            if (want != null && want.startsWith("@@ ")) section = want.substring(3);
+            if (Objects.equals(want, got)) continue;
+            System.out.println("  " + section + " line " + (i + 1) + ":");
+            System.out.println("    expected: " + (want == null ? "(nothing)" : want));
+            System.out.println("    actual:   " + (got == null ? "(nothing)" : got));
+        }
+        return 1;
+    }
+
+    // bytes per frame, the lowest of a few rounds once the JIT has settled: { unchanged, changed }
+    private static long[] measureFrame(String scene) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<String> left = F3Fixtures.left(scene);
+        List<String> right = F3Fixtures.right(scene);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            if ((i & 1) == 0) DebugDataParser.invalidateLineCache();
+            frame(left, right);
+        }
+
+        long unchanged = Long.MAX_VALUE, changed = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_FRAMES; i++) frame(left, right);
+            unchanged = Math.min(unchanged, (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_FRAMES);
+
+            before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < MEASURED_FRAMES; i++) {
+                DebugDataParser.invalidateLineCache();
+                frame(left, right);
+            }
+            changed = Math.min(changed, (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_FRAMES);
+        }
+        return new long[] { unchanged, changed };
+    }
+
+    private static void frame(List<String> left, List<String> right) {
+        DebugDataParser.parse(left);
+        DebugDataParser.getLeftValues();
+        DebugDataParser.parse(right);
+        DebugDataParser.getRightValues();
+    }
+
+    private static int checkBudget(String scene, String what, long bytes, long budget) {
+        boolean ok = bytes <= budget;
+        System.out.println((ok ? "ok   " : "FAIL ") + scene + ": " + what + " allocates " + bytes + " bytes (budget " + budget + ")");
+        return ok ? 0 : 1;
+    }
+
+    private static List<String> builtinLines() {
+        List<String> lineKeys = new ArrayList<>(DebugDataParser.leftLines);
+        lineKeys.addAll(DebugDataParser.rightLines);
+        lineKeys.removeIf(lineKey -> lineKey.equals("<br>"));
+        return lineKeys;
+    }
+}
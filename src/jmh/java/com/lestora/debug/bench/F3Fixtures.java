@@ -0,0 +1,54 @@
+package com.lestora.debug.bench;
+
+import com.lestora.debug.LestoraDebugMod;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * F3 columns captured from a real 1.21.4 client, one folder per scene under src/jmh/resources/f3, each with the
+ * left.txt and right.txt vanilla handed over that frame.
+ */
+public final class F3Fixtures {
+    public static final String OVERWORLD = "overworld";
+    public static final String NETHER = "nether";
+    // looking at mangrove roots (ten tags), a waterlogged fluid and a frog
+    public static final String TARGET_BLOCK_TAGS = "target-block-tags";
+    // standing in a chunk that hasn't arrived yet, so the light/heightmap/biome lines are replaced
+    public static final String WAITING_FOR_CHUNK = "waiting-for-chunk";
+
+    private static boolean installed;
+
+    private F3Fixtures() { }
+
+    /** Register the mod's built-in handlers, as the game does when it constructs the mod. */
+    public static void installHandlers() {
+        if (installed) return;
+        new LestoraDebugMod(null);
+        installed = true;
+    }
+
+    public static List<String> left(String scene) {
+        return read(scene, "left");
+    }
+
+    public static List<String> right(String scene) {
+        return read(scene, "right");
+    }
+
+    private static List<String> read(String scene, String column) {
+        String path = "/f3/" + scene + "/" + column + ".txt";
+        try (InputStream in = F3Fixtures.class.getResourceAsStream(path)) {
+            if (in == null) throw new IllegalArgumentException("No F3 fixture at " + path);
+            // vanilla hands over an ArrayList, so keep the same list type
+            return new ArrayList<>(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)).lines().toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.lestora.debug.bench;
+
+import com.lestora.debug.DebugDataParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One built-in handler of {@link com.lestora.debug.LestoraDebugMod} at a time: its parser and rebuilder run on every
+ * op, on the line captured for it in {@link F3Fixtures}.
+ * <p>
+ * Each op parses the shortest stretch of the fixture column that produces the line, e.g. "Minecraft ..." plus the
+ * line itself on the left (that's how parse tells the columns apart), or a whole "Targeted Block" section for its
+ * tags. Only the benchmarked line is invalidated, so the rest of the stretch costs a cache hit each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+    // every built-in line that a fixture shows; "TargetEntity.Coords" rebuilds to nothing, and vanilla never shows
+    // entity states or tags
+    @Param({
+            "MinecraftData.VersionInfo", "MinecraftData.Renderer", "MinecraftData.Server", "MinecraftData.Chunks",
+            "MinecraftData.Entities", "MinecraftData.Particles", "MinecraftData.ChunksClient",
+            "MinecraftData.ChunksServer", "MinecraftData.Dimension",
+            "LocationDetails.Position", "LocationDetails.Block", "LocationDetails.Chunk", "LocationDetails.Facing",
+            "LocationDetails.Light", "LocationDetails.HeightmapClient", "LocationDetails.HeightmapServer",
+            "LocationDetails.Biome", "LocationDetails.LocalDifficulty", "LocationDetails.NoiseRouter",
+            "LocationDetails.BiomeBuilder", "LocationDetails.MobCaps", "LocationDetails.Sounds",
+            "System.Java", "System.Memory", "System.AllocationRate", "System.Allocated", "System.CPU",
+            "System.Display", "System.Renderer", "System.OpenGLVersion",
+            "TargetBlock.Coords", "TargetBlock.ResourceLocation", "TargetBlock.States", "TargetBlock.Tags",
+            "TargetFluid.Coords", "TargetFluid.ResourceLocation", "TargetFluid.States", "TargetFluid.Tags",
+            "TargetEntity.ResourceLocation"
+    })
+    public String lineKey;
+
+    private List<String> lines;
+    private boolean left;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        F3Fixtures.installHandlers();
+        for (String scene : List.of(F3Fixtures.OVERWORLD, F3Fixtures.TARGET_BLOCK_TAGS)) {
+            lines = shortestProducing(F3Fixtures.left(scene), true);
+            left = lines != null;
+            if (lines == null) lines = shortestProducing(F3Fixtures.right(scene), false);
+            if (lines != null) return;
+        }
+        throw new IllegalStateException("No F3 fixture shows " + lineKey);
+    }
+
+    @Benchmark
+    public void parseAndRebuild(Blackhole blackhole) {
+        DebugDataParser.invalidateLineCache(lineKey);
+        DebugDataParser.parse(lines);
+        blackhole.consume(left ? DebugDataParser.getLeftValues() : DebugDataParser.getRightValues());
+    }
+
+    // from the bottom of each paragraph up, the first stretch whose rebuilt column shows lineKey
+    private List<String> shortestProducing(List<String> column, boolean isLeft) {
+        int end = column.size();
+        for (int start = column.size() - 1; start >= 0; start--) {
+            if (column.get(start).isBlank()) {
+                end = start;
+                continue;
+            }
+            List<String> stretch = new ArrayList<>();
+            if (isLeft) {
+                if (start > 0) stretch.add(column.get(0));
+                stretch.add(column.get(start));
+            } else {
+                stretch.addAll(column.subList(start, end));
+            }
+
+            DebugDataParser.parse(stretch);
+            if (isLeft) {
+                DebugDataParser.getLeftValues();
+                if (DebugDataParser.findLeftRow(lineKey) >= 0) return stretch;
+            } else {
+                DebugDataParser.getRightValues();
+                if (DebugDataParser.findRightRow(lineKey) >= 0) return stretch;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.lestora.debug.bench;
+
+import com.lestora.debug.DebugDataParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole per-frame cost of F3: {@link DebugDataParser#parse} and rebuild for both columns, as the mixin runs it
+ * when a refresh is due.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+    @Param({F3Fixtures.OVERWORLD, F3Fixtures.NETHER, F3Fixtures.TARGET_BLOCK_TAGS, F3Fixtures.WAITING_FOR_CHUNK})
+    public String scene;
+
+    private List<String> left;
+    private List<String> right;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        F3Fixtures.installHandlers();
+        left = F3Fixtures.left(scene);
+        right = F3Fixtures.right(scene);
+        DebugDataParser.parse(left);
+        DebugDataParser.getLeftValues();
+        DebugDataParser.parse(right);
+        DebugDataParser.getRightValues();
+    }
+
+    /** Nothing changed since the last frame, e.g. standing still: every line is a cache hit. */
+    @Benchmark
+    public void unchangedFrame(Blackhole blackhole) {
+        frame(blackhole);
+    }
+
+    /** Every line changed: each goes through its parser and rebuilder. */
+    @Benchmark
+    public void changedFrame(Blackhole blackhole) {
+        DebugDataParser.invalidateLineCache();
+        frame(blackhole);
+    }
+
+    private void frame(Blackhole blackhole) {
+        DebugDataParser.parse(left);
+        blackhole.consume(DebugDataParser.getLeftValues());
+        DebugDataParser.parse(right);
+        blackhole.consume(DebugDataParser.getRightValues());
+    }
+}
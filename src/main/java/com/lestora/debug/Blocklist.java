@@ -0,0 +1,127 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * The set of keys hidden from F3, e.g. "LocationDetails.Light" or "System.Memory.Percent".
+ * Blocking a key also blocks everything under it.
+ * <p>
+ * The keys are compiled into a trie of dotted segments, and the answer for each {@link DatumKeys} ID is cached, so
+ * the per-frame check in {@link #isBlocked(int)} is a single array lookup. Every change bumps {@link #generation()},
+ * which throws the compiled trie and the cached answers away.
+ */
+public class Blocklist extends AbstractSet<String> {
+    private static final byte UNKNOWN = 0;
+    private static final byte ALLOWED = 1;
+    private static final byte BLOCKED = 2;
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean blocked;
+    }
+
+    private final Set<String> keys = new LinkedHashSet<>();
+    private int generation;
+    private int compiledGeneration = -1;
+    private Node root = new Node();
+    private byte[] decisions = new byte[64];
+
+    /** Bumped every time a key is added or removed. */
+    public int generation() {
+        return generation;
+    }
+
+    /** Whether the datum with this {@link DatumKeys} ID, or any of its parents, is blocked. */
+    public boolean isBlocked(int id) {
+        if (keys.isEmpty()) return false;
+        if (compiledGeneration != generation) compile();
+        if (id >= decisions.length) decisions = Arrays.copyOf(decisions, Math.max(decisions.length * 2, id + 1));
+
+        byte decision = decisions[id];
+        if (decision == UNKNOWN) {
+            decision = decide(DatumKeys.fullKey(id)) ? BLOCKED : ALLOWED;
+            decisions[id] = decision;
+        }
+        return decision == BLOCKED;
+    }
+
+    /** Whether this "lineKey.datumKey" (or any of its parents) is blocked. Slower than {@link #isBlocked(int)}. */
+    public boolean isBlocked(String fullKey) {
+        if (keys.isEmpty()) return false;
+        if (compiledGeneration != generation) compile();
+        return decide(fullKey);
+    }
+
+    @Override
+    public boolean add(String key) {
+        if (!keys.add(key)) return false;
+        generation++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object key) {
+        if (!keys.remove(key)) return false;
+        generation++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (keys.isEmpty()) return;
+        keys.clear();
+        generation++;
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return keys.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return keys.size();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        var it = keys.iterator();
+        return new Iterator<>() {
+            public boolean hasNext() { return it.hasNext(); }
+            public String next() { return it.next(); }
+            public void remove() {
+                it.remove();
+                generation++;
+            }
+        };
+    }
+
+    // walk the key one dotted segment at a time; any blocked node on the way blocks it
+    private boolean decide(String fullKey) {
+        Node node = root;
+        int start = 0;
+        while (node != null) {
+            int dot = fullKey.indexOf('.', start);
+            int end = dot < 0 ? fullKey.length() : dot;
+            node = node.children.get(fullKey.substring(start, end));
+            if (node != null && node.blocked) return true;
+            if (dot < 0) return false;
+            start = dot + 1;
+        }
+        return false;
+    }
+
+    private void compile() {
+        Node compiled = new Node();
+        for (String key : keys) {
+            Node node = compiled;
+            for (String segment : key.split("\\.", -1)) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            node.blocked = true;
+        }
+        root = compiled;
+        Arrays.fill(decisions, UNKNOWN);
+        compiledGeneration = generation;
+    }
+}
@@ -0,0 +1,166 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * A short history of every numeric datum, e.g. how "MinecraftData.Server.TickTimeMs" moved over the last half minute.
+ * <p>
+ * Each {@link DatumKeys} ID that has held a number gets a fixed-size ring of samples: a double[] of values and a long[]
+ * of System.nanoTime() stamps, written once per column refresh. A ring is allocated the first time its datum is
+ * sampled, so recording doesn't allocate after warm-up, and memory stays under {@link #getCapacity()} × 16 bytes per
+ * numeric datum.
+ */
+public final class DatumHistory {
+    /** Rolling statistics over part of one datum's history. Reuse an instance to query without allocating. */
+    public static final class Window {
+        public int count;
+        // all NaN while count is 0
+        public double min;
+        public double max;
+        public double mean;
+        public double stddev;
+    }
+
+    public static final int MIN_CAPACITY = 2;
+    public static final int MAX_CAPACITY = 65_536;
+
+    private static int capacity = 600;
+    private static boolean enabled = true;
+    private static double[][] values = new double[64][];
+    private static long[][] times = new long[64][];
+    // where each ring writes next, and how many samples it holds
+    private static int[] heads = new int[64];
+    private static int[] sizes = new int[64];
+
+    private DatumHistory() { }
+
+    /** Samples kept per datum; at 20 refreshes a second the default covers the last 30 seconds. */
+    public static int getCapacity() {
+        return capacity;
+    }
+
+    /** @param samples  per datum, clamped to {@link #MIN_CAPACITY}..{@link #MAX_CAPACITY}; drops all history */
+    public static void setCapacity(int samples) {
+        capacity = Math.max(MIN_CAPACITY, Math.min(MAX_CAPACITY, samples));
+        clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+        if (!on) clear();
+    }
+
+    public static void clear() {
+        Arrays.fill(values, null);
+        Arrays.fill(times, null);
+        Arrays.fill(heads, 0);
+        Arrays.fill(sizes, 0);
+    }
+
+    /** Sample every numeric datum these lines currently hold. */
+    static void record(DatumStore store, List<String> lineKeys, long nanos) {
+        if (!enabled) return;
+        for (int i = 0; i < lineKeys.size(); i++) {
+            DatumStore.Line line = store.find(lineKeys.get(i));
+            if (line == null) continue;
+            for (int slot = 0; slot < line.slotCount(); slot++) {
+                int id = line.slotAt(slot);
+                if (store.isNumeric(id)) record(id, store.getDouble(id), nanos);
+            }
+        }
+    }
+
+    /** Append one sample for a {@link DatumKeys} ID, overwriting its oldest once the ring is full. */
+    public static void record(int id, double value, long nanos) {
+        if (!enabled) return;
+        if (id >= values.length) {
+            int size = Math.max(values.length * 2, id + 1);
+            values = Arrays.copyOf(values, size);
+            times = Arrays.copyOf(times, size);
+            heads = Arrays.copyOf(heads, size);
+            sizes = Arrays.copyOf(sizes, size);
+        }
+        if (values[id] == null) {
+            values[id] = new double[capacity];
+            times[id] = new long[capacity];
+        }
+
+        int head = heads[id];
+        values[id][head] = value;
+        times[id][head] = nanos;
+        heads[id] = head + 1 == capacity ? 0 : head + 1;
+        if (sizes[id] < capacity) sizes[id]++;
+    }
+
+    /** How many samples are held for a {@link DatumKeys} ID. */
+    public static int size(int id) {
+        return id >= 0 && id < sizes.length ? sizes[id] : 0;
+    }
+
+    /** @param ago  0 for the newest sample, up to {@link #size(int)} - 1 for the oldest */
+    public static double value(int id, int ago) {
+        return values[id][index(id, ago)];
+    }
+
+    /** The System.nanoTime() a sample was taken at. */
+    public static long time(int id, int ago) {
+        return times[id][index(id, ago)];
+    }
+
+    private static int index(int id, int ago) {
+        if (ago < 0 || ago >= size(id)) throw new IndexOutOfBoundsException("No sample " + ago + " for datum " + id);
+        int index = heads[id] - 1 - ago;
+        return index < 0 ? index + capacity : index;
+    }
+
+    /**
+     * Min, max, mean and (population) standard deviation over the samples taken in the last windowMillis, up to now.
+     * A datum that stopped being sampled (F3 closed, its line hidden or blocked) has nothing in a window that starts
+     * after its last sample.
+     *
+     * @param out  filled in and returned; its count is 0 if there were no samples in the window
+     */
+    public static Window window(int id, long windowMillis, Window out) {
+        return window(id, windowMillis, System.nanoTime(), out);
+    }
+
+    /** Same as {@link #window(int, long, Window)}, for the window that ends at nowNanos (a System.nanoTime()). */
+    public static Window window(int id, long windowMillis, long nowNanos, Window out) {
+        int size = size(id);
+        long cutoff = nowNanos - windowMillis * 1_000_000L;
+
+        int count = 0;
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, mean = 0, m2 = 0;
+        for (int ago = 0; ago < size && time(id, ago) - cutoff >= 0; ago++) {
+            double value = value(id, ago);
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            // Welford, so a long flat history doesn't lose the variance to rounding
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        out.count = count;
+        out.min = count == 0 ? Double.NaN : min;
+        out.max = count == 0 ? Double.NaN : max;
+        out.mean = count == 0 ? Double.NaN : mean;
+        out.stddev = count == 0 ? Double.NaN : Math.sqrt(m2 / count);
+        return out;
+    }
+
+    /**
+     * Same as {@link #window(int, long, Window)} for a "lineKey.datumKey", e.g. "MinecraftData.Server.TickTimeMs".
+     *
+     * @return null if that datum isn't known
+     */
+    public static Window window(String fullKey, long windowMillis) {
+        int id = DatumKeys.findFullKey(fullKey);
+        return id < 0 ? null : window(id, windowMillis, new Window());
+    }
+}
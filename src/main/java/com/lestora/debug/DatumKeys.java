@@ -0,0 +1,95 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * Hands out a stable int ID for every (lineKey, datumKey) pair the first time it shows up.
+ * <p>
+ * The hot path (emitting, blocklist checks, the datum store) works on these IDs, so "lineKey.datumKey" Strings are
+ * only built once per key, here, and are only looked at again by commands and suggestions.
+ */
+public final class DatumKeys {
+    private static final Map<String, Map<String, Integer>> idsByLine = new HashMap<>();
+    private static String[] lineKeys = new String[64];
+    private static String[] datumKeys = new String[64];
+    private static String[] fullKeys = new String[64];
+    private static int count;
+
+    private DatumKeys() { }
+
+    /** The ID for this pair, registering it if it's new. */
+    public static int id(String lineKey, String datumKey) {
+        Map<String, Integer> ids = idsFor(lineKey);
+        Integer id = ids.get(datumKey);
+        return id != null ? id : register(lineKey, datumKey, ids);
+    }
+
+    /** The ID for this pair, or -1 if it was never registered. */
+    public static int find(String lineKey, String datumKey) {
+        Map<String, Integer> ids = idsByLine.get(lineKey);
+        Integer id = ids == null ? null : ids.get(datumKey);
+        return id == null ? -1 : id;
+    }
+
+    /** The ID for a full "lineKey.datumKey" key, or -1. Slow: meant for commands, not for every frame. */
+    public static int findFullKey(String fullKey) {
+        for (int id = 0; id < count; id++) {
+            if (fullKeys[id].equals(fullKey)) return id;
+        }
+        return -1;
+    }
+
+    /**
+     * The live datumKey → ID map for one line. Callers that emit often should hold onto this instead of going
+     * through {@link #id(String, String)}, which has to find the line first.
+     */
+    public static Map<String, Integer> idsFor(String lineKey) {
+        return idsByLine.computeIfAbsent(lineKey, k -> new HashMap<>());
+    }
+
+    public static int count() {
+        return count;
+    }
+
+    public static String lineKey(int id) {
+        return lineKeys[id];
+    }
+
+    public static String datumKey(int id) {
+        return datumKeys[id];
+    }
+
+    public static String fullKey(int id) {
+        return fullKeys[id];
+    }
+
+    /**
+     * Where a full key given by a caller splits into its lineKey and datumKey: the last dot, so the lineKey can have
+     * dots of its own (e.g. "MyMod.Player.Wetness"). Only plain String work, so it's safe from any thread.
+     *
+     * @throws IllegalArgumentException if either half would be empty
+     */
+    public static int splitAt(String fullKey) {
+        int dot = fullKey.lastIndexOf('.');
+        if (dot <= 0 || dot == fullKey.length() - 1) {
+            throw new IllegalArgumentException("Keys look like \"lineKey.datumKey\", e.g. \"MyMod.Player.Wetness\": " + fullKey);
+        }
+        return dot;
+    }
+
+    private static int register(String lineKey, String datumKey, Map<String, Integer> ids) {
+        int id = count++;
+        if (id >= fullKeys.length) {
+            int size = fullKeys.length * 2;
+            lineKeys = Arrays.copyOf(lineKeys, size);
+            datumKeys = Arrays.copyOf(datumKeys, size);
+            fullKeys = Arrays.copyOf(fullKeys, size);
+        }
+
+        lineKeys[id] = lineKey;
+        datumKeys[id] = datumKey;
+        fullKeys[id] = lineKey + "." + datumKey;
+        ids.put(datumKey, id);
+        return id;
+    }
+}
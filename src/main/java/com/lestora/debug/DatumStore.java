@@ -0,0 +1,393 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * Parsed datums, grouped by the lineKey that produced them.
+ * <p>
+ * Values live in flat arrays indexed by {@link DatumKeys} ID, and each line keeps the list of IDs it has emitted, so
+ * reading a line back for its rebuilder or sweeping out datums a handler stopped emitting only ever touches that one
+ * line. {@link #flatView()} exposes the old flat "lineKey.datumKey" → value shape for commands and suggestions.
+ * <p>
+ * Numeric datums are kept as a long or double (plus how they were written, and a unit), and only turned into text
+ * when something reads them as a String, e.g. a rebuilder.
+ */
+public class DatumStore {
+    public enum Kind { TEXT, INT, DOUBLE }
+
+    private final Map<String, Line> lines = new LinkedHashMap<>();
+    private final Map<String, String> flatView = new FlatView();
+    // null kind means the slot holds no value
+    private Kind[] kinds = new Kind[64];
+    // the text value, or a numeric value's formatted text once something asked for it
+    private String[] values = new String[64];
+    private long[] longs = new long[64];
+    private double[] doubles = new double[64];
+    // zero-padded width of an INT, decimals of a DOUBLE
+    private byte[] digits = new byte[64];
+    private String[] units = new String[64];
+    private int[] passes = new int[64];
+    private boolean[] slotted = new boolean[64];
+
+    public final class Line {
+        private final String lineKey;
+        private final Map<String, Integer> ids;
+        private final Map<String, String> view = new LineView();
+        private int[] order = new int[8];
+        private int slots;
+        private int pass;
+        private boolean dirty;
+
+        private Line(String lineKey) {
+            this.lineKey = lineKey;
+            this.ids = DatumKeys.idsFor(lineKey);
+        }
+
+        public String lineKey() {
+            return lineKey;
+        }
+
+        /** The {@link DatumKeys} ID for one of this line's datums, registering it (and giving it a slot) if it's new. */
+        public int slot(String datumKey) {
+            Integer id = ids.get(datumKey);
+            if (id != null && id < slotted.length && slotted[id]) return id;
+            int slot = DatumKeys.id(lineKey, datumKey);
+            addSlot(slot);
+            return slot;
+        }
+
+        /** Start a fresh pass over this line; anything not {@link #put} before {@link #sweep()} gets dropped. */
+        public void begin() {
+            pass++;
+        }
+
+        public void put(String datumKey, String value) {
+            put(slot(datumKey), value);
+        }
+
+        /** @param id  a slot from {@link #slot(String)} */
+        public void put(int id, String value) {
+            if (value == null) {
+                remove(id);
+            } else if (kinds[id] != Kind.TEXT || !value.equals(values[id])) {
+                kinds[id] = Kind.TEXT;
+                values[id] = value;
+                units[id] = null;
+                dirty = true;
+            }
+            passes[id] = pass;
+        }
+
+        /**
+         * @param id         a slot from {@link #slot(String)}
+         * @param minDigits  zero-pad to this many digits when shown, e.g. 3 for "007"
+         * @param unit       e.g. "ms", or null
+         */
+        public void putInt(int id, long value, int minDigits, String unit) {
+            if (kinds[id] != Kind.INT || longs[id] != value || digits[id] != minDigits) {
+                kinds[id] = Kind.INT;
+                longs[id] = value;
+                digits[id] = (byte) minDigits;
+                values[id] = null;
+                dirty = true;
+            }
+            units[id] = unit;
+            passes[id] = pass;
+        }
+
+        /**
+         * @param id              a slot from {@link #slot(String)}
+         * @param fractionDigits  decimals to show, e.g. 1 for "3.1"
+         * @param unit            e.g. "ms", or null
+         */
+        public void putDouble(int id, double value, int fractionDigits, String unit) {
+            if (kinds[id] != Kind.DOUBLE || Double.doubleToLongBits(doubles[id]) != Double.doubleToLongBits(value)
+                    || digits[id] != fractionDigits) {
+                kinds[id] = Kind.DOUBLE;
+                doubles[id] = value;
+                digits[id] = (byte) fractionDigits;
+                values[id] = null;
+                dirty = true;
+            }
+            units[id] = unit;
+            passes[id] = pass;
+        }
+
+        public String get(String datumKey) {
+            Integer id = ids.get(datumKey);
+            return id == null || id >= values.length ? null : DatumStore.this.get(id);
+        }
+
+        public String get(int id) {
+            return DatumStore.this.get(id);
+        }
+
+        public void remove(String datumKey) {
+            Integer id = ids.get(datumKey);
+            if (id != null && id < values.length) remove(id);
+        }
+
+        public void remove(int id) {
+            if (kinds[id] != null) {
+                kinds[id] = null;
+                values[id] = null;
+                units[id] = null;
+                dirty = true;
+            }
+        }
+
+        /** Drop every datum that wasn't put since the last {@link #begin()}. */
+        public void sweep() {
+            for (int i = 0; i < slots; i++) {
+                int id = order[i];
+                if (passes[id] != pass) remove(id);
+            }
+        }
+
+        public void clear() {
+            for (int i = 0; i < slots; i++) remove(order[i]);
+        }
+
+        /** Whether any value was added, changed or removed since the last call. */
+        public boolean takeDirty() {
+            boolean wasDirty = dirty;
+            dirty = false;
+            return wasDirty;
+        }
+
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        private int size() {
+            int size = 0;
+            for (int i = 0; i < slots; i++) {
+                if (kinds[order[i]] != null) size++;
+            }
+            return size;
+        }
+
+        /** How many datums this line has ever emitted; each one keeps its slot even while it holds no value. */
+        public int slotCount() {
+            return slots;
+        }
+
+        /** The {@link DatumKeys} ID of the index-th datum this line emitted. */
+        public int slotAt(int index) {
+            return order[index];
+        }
+
+        /** A live, read-only datumKey → value view of this line, in the order its datums were first emitted. */
+        public Map<String, String> values() {
+            return view;
+        }
+
+        private void addSlot(int id) {
+            if (id >= values.length) {
+                int size = Math.max(values.length * 2, id + 1);
+                kinds = Arrays.copyOf(kinds, size);
+                values = Arrays.copyOf(values, size);
+                longs = Arrays.copyOf(longs, size);
+                doubles = Arrays.copyOf(doubles, size);
+                digits = Arrays.copyOf(digits, size);
+                units = Arrays.copyOf(units, size);
+                passes = Arrays.copyOf(passes, size);
+                slotted = Arrays.copyOf(slotted, size);
+            }
+            if (slotted[id]) return;
+            slotted[id] = true;
+            if (slots == order.length) order = Arrays.copyOf(order, slots * 2);
+            order[slots++] = id;
+        }
+
+        private final class LineView extends AbstractMap<String, String> {
+            @Override
+            public String get(Object key) {
+                return key instanceof String datumKey ? Line.this.get(datumKey) : null;
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return get(key) != null;
+            }
+
+            @Override
+            public int size() {
+                return Line.this.size();
+            }
+
+            @Override
+            public Set<Entry<String, String>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, String>> iterator() {
+                        List<Entry<String, String>> entries = new ArrayList<>();
+                        for (int i = 0; i < slots; i++) {
+                            int id = order[i];
+                            if (kinds[id] != null) entries.add(new SimpleImmutableEntry<>(DatumKeys.datumKey(id), DatumStore.this.get(id)));
+                        }
+                        return Collections.unmodifiableList(entries).iterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return Line.this.size();
+                    }
+                };
+            }
+        }
+    }
+
+    /** The line for this key, created on first use. */
+    public Line line(String lineKey) {
+        Line line = lines.get(lineKey);
+        if (line == null) {
+            line = new Line(lineKey);
+            lines.put(lineKey, line);
+        }
+        return line;
+    }
+
+    /** The line for this key, or null if it never emitted anything. */
+    public Line find(String lineKey) {
+        return lines.get(lineKey);
+    }
+
+    /** A read-only datumKey → value view of one line (empty if the line has no datums). */
+    public Map<String, String> values(String lineKey) {
+        Line line = lines.get(lineKey);
+        return line == null ? Collections.emptyMap() : line.values();
+    }
+
+    /** The current value for a {@link DatumKeys} ID as text, or null. Numeric values are formatted on first read. */
+    public String get(int id) {
+        if (id < 0 || id >= values.length || kinds[id] == null) return null;
+        String value = values[id];
+        if (value == null) {
+            value = kinds[id] == Kind.INT ? formatInt(longs[id], digits[id]) : formatDouble(doubles[id], digits[id]);
+            values[id] = value;
+        }
+        return value;
+    }
+
+    /** What's stored for a {@link DatumKeys} ID, or null if nothing is. */
+    public Kind kind(int id) {
+        return id >= 0 && id < kinds.length ? kinds[id] : null;
+    }
+
+    public boolean isNumeric(int id) {
+        Kind kind = kind(id);
+        return kind == Kind.INT || kind == Kind.DOUBLE;
+    }
+
+    /** A numeric datum's value, or NaN if the ID doesn't hold a number right now. */
+    public double getDouble(int id) {
+        Kind kind = kind(id);
+        if (kind == Kind.INT) return longs[id];
+        if (kind == Kind.DOUBLE) return doubles[id];
+        return Double.NaN;
+    }
+
+    /** A numeric datum's value (doubles are truncated), or 0 if the ID doesn't hold a number right now. */
+    public long getLong(int id) {
+        Kind kind = kind(id);
+        if (kind == Kind.INT) return longs[id];
+        if (kind == Kind.DOUBLE) return (long) doubles[id];
+        return 0;
+    }
+
+    /** The unit a numeric datum was emitted with (e.g. "ms", "MB"), or null. */
+    public String unit(int id) {
+        return id >= 0 && id < units.length ? units[id] : null;
+    }
+
+    public void clear(String lineKey) {
+        Line line = lines.get(lineKey);
+        if (line != null) line.clear();
+    }
+
+    /** A live, read-only view of every datum as "lineKey.datumKey" → value. */
+    public Map<String, String> flatView() {
+        return flatView;
+    }
+
+    // e.g. (7, 3) → "007"
+    private static String formatInt(long value, int minDigits) {
+        String text = Long.toString(value);
+        int length = value < 0 ? text.length() - 1 : text.length();
+        if (length >= minDigits) return text;
+
+        StringBuilder sb = new StringBuilder(minDigits + 1);
+        if (value < 0) sb.append('-');
+        for (int i = length; i < minDigits; i++) sb.append('0');
+        return sb.append(text, value < 0 ? 1 : 0, text.length()).toString();
+    }
+
+    // e.g. (3.1, 1) → "3.1"; matches String.format("%.Nf"), including "-0.000"
+    private static String formatDouble(double value, int fractionDigits) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || fractionDigits > 15) return Double.toString(value);
+
+        long scale = 1;
+        for (int i = 0; i < fractionDigits; i++) scale *= 10;
+        long scaled = Math.round(Math.abs(value) * scale);
+
+        StringBuilder sb = new StringBuilder(24);
+        if (Double.doubleToRawLongBits(value) < 0) sb.append('-');
+        sb.append(scaled / scale);
+        if (fractionDigits > 0) {
+            String fraction = Long.toString(scaled % scale);
+            sb.append('.');
+            for (int i = fraction.length(); i < fractionDigits; i++) sb.append('0');
+            sb.append(fraction);
+        }
+        return sb.toString();
+    }
+
+    private final class FlatView extends AbstractMap<String, String> {
+        @Override
+        public String get(Object key) {
+            if (!(key instanceof String fullKey)) return null;
+            int dot = fullKey.lastIndexOf('.');
+            while (dot > 0) {
+                int id = DatumKeys.find(fullKey.substring(0, dot), fullKey.substring(dot + 1));
+                if (id >= 0) return DatumStore.this.get(id);
+                dot = fullKey.lastIndexOf('.', dot - 1);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (Line line : lines.values()) size += line.size();
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    List<Entry<String, String>> entries = new ArrayList<>();
+                    for (Line line : lines.values()) {
+                        for (int i = 0; i < line.slots; i++) {
+                            int id = line.order[i];
+                            if (kinds[id] != null) entries.add(new SimpleImmutableEntry<>(DatumKeys.fullKey(id), DatumStore.this.get(id)));
+                        }
+                    }
+                    return Collections.unmodifiableList(entries).iterator();
+                }
+
+                @Override
+                public int size() {
+                    return FlatView.this.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.lestora.debug;
+
+/**
+ * One datum's value held outside the {@link DatumStore}, e.g. by another thread, until it's emitted on the render
+ * thread. Immutable, so it can be handed between threads as is.
+ */
+record DatumValue(DatumStore.Kind kind, String text, long longValue, double doubleValue, int digits, String unit) {
+    static DatumValue text(String value) {
+        return new DatumValue(DatumStore.Kind.TEXT, value, 0, 0, 0, null);
+    }
+
+    /** @param minDigits  zero-pad to this many digits when shown */
+    static DatumValue ofLong(long value, int minDigits, String unit) {
+        return new DatumValue(DatumStore.Kind.INT, null, value, 0, minDigits, unit);
+    }
+
+    /** @param fractionDigits  decimals to show */
+    static DatumValue ofDouble(double value, int fractionDigits, String unit) {
+        return new DatumValue(DatumStore.Kind.DOUBLE, null, 0, value, fractionDigits, unit);
+    }
+
+    void emitTo(String datumKey, DebugDataParser.DatumEmitter datumEmitter) {
+        switch (kind) {
+            case TEXT -> datumEmitter.emitText(datumKey, text);
+            case INT -> datumEmitter.emitInt(datumKey, longValue, digits, unit);
+            case DOUBLE -> datumEmitter.emitDouble(datumKey, doubleValue, digits, unit);
+        }
+    }
+}
@@ -4,9 +4,16 @@ import org.apache.commons.lang3.StringUtils;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 public class DebugDataParser {
+    /**
+     * The older, single-function handler form. It hands back a fresh rebuilder every time a line changes, so prefer
+     * {@link LineParser} plus a rebuilder registered once through {@link #handleBuiltinF3(String, LineParser, Function)}.
+     */
     @FunctionalInterface
     public interface LineHandler {
         /**
@@ -16,13 +23,275 @@ public class DebugDataParser {
          */
         Function<Map<String,String>, List<String>> handle(String rawLine, BiConsumer<String,String> datumEmitter);
     }
-    private static final Map<String, LineHandler> lineHandlers = new LinkedHashMap<>();
+    @FunctionalInterface
+    public interface LineParser {
+        /**
+         * @param rawLine       the exact text from F3
+         * @param datumEmitter  call datumEmitter.accept(datumKey, datumValue) for each piece you parse
+         */
+        void parse(String rawLine, BiConsumer<String,String> datumEmitter);
+    }
+    /**
+     * A {@link LineParser} that's also told which datums anyone will see, so it can skip extracting the rest, and can
+     * emit numbers as numbers.
+     */
+    @FunctionalInterface
+    public interface MaskedLineParser {
+        /**
+         * @param rawLine       the exact text from F3
+         * @param requested     which datums aren't blocked; emitting the others is allowed, just wasted, so it's only
+         *                      worth asking before extracting text (e.g. a substring), not before reading a number
+         * @param datumEmitter  call one of its emit methods for each piece you parse
+         */
+        void parse(String rawLine, DatumMask requested, DatumEmitter datumEmitter);
+    }
+
+    /**
+     * Where parsers and providers put their datums. Plain {@code accept(datumKey, datumValue)} stores text; the typed
+     * calls keep numbers as numbers, and they're only formatted back into text when a rebuilder reads them.
+     */
+    public interface DatumEmitter extends BiConsumer<String,String> {
+        void emitText(String datumKey, String value);
+
+        /**
+         * @param minDigits  zero-pad to this many digits when shown, e.g. 3 for vanilla's "pC: 000"
+         * @param unit       e.g. "ms" or "MB", or null
+         */
+        void emitInt(String datumKey, long value, int minDigits, String unit);
+
+        /**
+         * @param fractionDigits  decimals to show, e.g. 1 for "3.1"
+         * @param unit            e.g. "ms" or "MB", or null
+         */
+        void emitDouble(String datumKey, double value, int fractionDigits, String unit);
+
+        default void emitInt(String datumKey, long value, String unit) {
+            emitInt(datumKey, value, 0, unit);
+        }
+
+        @Override
+        default void accept(String datumKey, String value) {
+            emitText(datumKey, value);
+        }
+    }
+    // Adapts a LineHandler: the rebuilder it returns may capture state from the line, so it's swapped in every time
+    private record LegacyParser(String lineKey, LineHandler handler) implements MaskedLineParser {
+        @Override
+        public void parse(String rawLine, DatumMask requested, DatumEmitter datumEmitter) {
+            rebuilderMap.put(lineKey, handler.handle(rawLine, datumEmitter));
+        }
+    }
+
+    /**
+     * Which of one line's datums anyone will see. Worked out from the blocklist and the column layouts, and only
+     * again when either changes; per datum it's the blocklist's cached decision for that datum's ID.
+     */
+    public static final class DatumMask {
+        private final String lineKey;
+        private final Map<String, Integer> ids;
+        // wants everything without looking anything up, so it can be handed to other threads
+        private final boolean everything;
+        private int blocklistGen = -1;
+        private int layoutGen = -1;
+        private boolean all;
+        private boolean any;
+
+        private DatumMask(String lineKey) {
+            this(lineKey, false);
+        }
+
+        private DatumMask(String lineKey, boolean everything) {
+            this.lineKey = lineKey;
+            this.ids = DatumKeys.idsFor(lineKey);
+            this.everything = everything;
+            this.all = everything;
+            this.any = everything;
+        }
+
+        /** A mask that wants every datum, for work done off the render thread; blocked ones are dropped later. */
+        static DatumMask everything(String lineKey) {
+            return new DatumMask(lineKey, true);
+        }
+
+        /** @param datumKey  e.g. "FPS"; datums the line hasn't emitted before are fine too */
+        public boolean wants(String datumKey) {
+            if (everything) return true;
+            refresh();
+            if (all) return true;
+            if (!any) return false;
+            Integer id = ids.get(datumKey);
+            return !blocked.isBlocked(id != null ? id : DatumKeys.id(lineKey, datumKey));
+        }
+
+        /** False when the line isn't in a column or everything on it is blocked; its parser isn't called then. */
+        public boolean wantsAny() {
+            refresh();
+            return any;
+        }
+
+        /** True when nothing on the line is blocked, so there's no need to ask about each datum. */
+        public boolean wantsAll() {
+            refresh();
+            return all;
+        }
+
+        private void refresh() {
+            if (everything) return;
+            if (blocklistGen == blocked.generation() && layoutGen == layoutGeneration) return;
+            blocklistGen = blocked.generation();
+            layoutGen = layoutGeneration;
+            boolean inUse = leftLines.contains(lineKey) || rightLines.contains(lineKey) || UnknownLines.isUnknown(lineKey);
+            any = inUse && !isLineBlocked(lineKey);
+            all = any && blocked.isEmpty();
+        }
+    }
+    /**
+     * Reads a line's values straight from client state instead of parsing vanilla's text for them, told which datums
+     * anyone will see, and able to emit numbers as numbers.
+     * Providers are registered up front, and only replace a line's parser once switched on with {@link #useProvider}.
+     */
+    @FunctionalInterface
+    public interface MaskedDatumProvider {
+        /**
+         * @param requested     which datums aren't blocked; skip working out the others
+         * @param datumEmitter  call one of its emit methods for each value, using the same datumKeys the line's parser
+         *                      would, so its rebuilder works unchanged
+         */
+        void provide(DatumMask requested, DatumEmitter datumEmitter);
+    }
+    /** The simpler {@link MaskedDatumProvider}, for a provider that only has text to give. */
+    @FunctionalInterface
+    public interface DatumProvider extends MaskedDatumProvider {
+        /**
+         * @param datumEmitter  call datumEmitter.accept(datumKey, datumValue) for each value, using the same datumKeys
+         *                      the line's parser would, so its rebuilder works unchanged
+         */
+        void provide(BiConsumer<String,String> datumEmitter);
+
+        @Override
+        default void provide(DatumMask requested, DatumEmitter datumEmitter) {
+            provide(datumEmitter);
+        }
+    }
+    private static final Map<String, MaskedLineParser> lineParsers = new LinkedHashMap<>();
+    private static final Map<String, MaskedDatumProvider> providers = new LinkedHashMap<>();
+    // lineKeys currently served by their provider; vanilla's text for them is ignored
+    private static final Set<String> providedLines = new HashSet<>();
+    // stands in for the raw line of a provided line, so its rebuilt output is cached like any other
+    private static final String PROVIDED = "\u0000provided";
+    // same, for a line whose datums come from publish
+    private static final String PUBLISHED = "\u0000published";
     // at top of class
     public static final Map<String, Function<Map<String,String>,List<String>>> rebuilderMap = new HashMap<>();
-    // Single flat map for all parsed data.
-    public static Map<String, String> data = new LinkedHashMap<>();
-    // Static global blocklist for keys to exclude.
-    public static Set<String> blocklist = new HashSet<>();
+    // All parsed data, grouped per lineKey.
+    public static final DatumStore store = new DatumStore();
+    // Read-only "lineKey.datumKey" → value view over the store, for commands and suggestions.
+    public static final Map<String, String> data = store.flatView();
+    // Static global blocklist for keys to exclude. Still a plain Set to other mods; the hot path goes through blocked.
+    private static final Blocklist blocked = new Blocklist();
+    public static Set<String> blocklist = blocked;
+    private static int blocklistGeneration;
+    // isLineBlocked answers, thrown away whenever the blocklist or the set of known datums changes
+    private static final Map<String, Boolean> blockedLines = new HashMap<>();
+    private static int blockedLinesGeneration = -1;
+    private static int blockedLinesDatumCount;
+
+    // Last raw line per lineKey, plus what it produced, so an unchanged line can skip its handler and rebuilder.
+    private static final class LineMemo {
+        final DatumStore.Line datums;
+        final DatumMask mask;
+        final DatumEmitter emitter;
+        String rawLine;
+        // set when the raw line should be shown as-is (no parser, or the parser threw)
+        String echo;
+        List<String> output;
+        boolean seen;
+        // how stale a scheduled provider's values are, in tenths of a second; 0 while fresh
+        long staleTenths;
+
+        LineMemo(String lineKey) {
+            datums = store.line(lineKey);
+            mask = new DatumMask(lineKey);
+            emitter = new DatumEmitter() {
+                @Override
+                public void emitText(String datumKey, String value) {
+                    putIfNotBlocked(datums, datumKey, value);
+                }
+
+                @Override
+                public void emitInt(String datumKey, long value, int minDigits, String unit) {
+                    int id = slotIfNotBlocked(datums, datumKey);
+                    if (id >= 0) datums.putInt(id, value, minDigits, unit);
+                }
+
+                @Override
+                public void emitDouble(String datumKey, double value, int fractionDigits, String unit) {
+                    int id = slotIfNotBlocked(datums, datumKey);
+                    if (id >= 0) datums.putDouble(id, value, fractionDigits, unit);
+                }
+            };
+        }
+    }
+    private static final Map<String, LineMemo> lineMemos = new HashMap<>();
+    private static long lineCacheHits;
+    private static long lineCacheMisses;
+
+    /**
+     * One F3 column's rendered lines, kept across frames. Each layout entry remembers the output it spliced in last
+     * time, so a frame only touches the entries whose output actually changed.
+     */
+    private static final class Column {
+        final List<String> lines = new ArrayList<>();
+        String[] layout = new String[0];
+        Object[] segments = new Object[0];
+        int[] counts = new int[0];
+        int size;
+        boolean built;
+
+        /** The persistent list, minus anything vanilla appended to it since it was handed out. */
+        List<String> handOut() {
+            if (lines.size() > size) lines.subList(size, lines.size()).clear();
+            return lines;
+        }
+
+        boolean sameLayout(List<String> keys) {
+            if (keys.size() != layout.length) return false;
+            for (int i = 0; i < layout.length; i++) {
+                if (!layout[i].equals(keys.get(i))) return false;
+            }
+            return true;
+        }
+
+        // the first row a line was spliced into the last time the column was built, or -1 if it showed nothing
+        int rowOf(String lineKey) {
+            int row = 0;
+            for (int i = 0; i < layout.length; i++) {
+                if (layout[i].equals(lineKey)) return counts[i] > 0 ? row : -1;
+                row += counts[i];
+            }
+            return -1;
+        }
+
+        String row(int row) {
+            return row >= 0 && row < size ? lines.get(row) : null;
+        }
+
+        void reset(List<String> keys) {
+            layoutGeneration++;
+            lines.clear();
+            layout = keys.toArray(new String[0]);
+            segments = new Object[layout.length];
+            counts = new int[layout.length];
+            size = 0;
+        }
+    }
+    private static final Column leftColumn = new Column();
+    private static final Column rightColumn = new Column();
+    private static final List<String> lineBreak = List.of("§n");
+    // bumped whenever a column's layout changes, so every DatumMask works itself out again
+    private static int layoutGeneration;
+    // set while only RefreshGovernor.liveKeys lines are being parsed
+    private static boolean liveOnly;
 
     public static final List<String> leftLines = new ArrayList<>(Arrays.asList(
             // Paragraph 1: game & perf
@@ -97,6 +366,93 @@ public class DebugDataParser {
             "TargetEntity.Tags"
     ));
 
+    private static final LineClassifier leftClassifier = new LineClassifier();
+    private static final LineClassifier rightClassifier = new LineClassifier();
+
+    static {
+        // ─── first paragraph (MinecraftData) ───
+        registerLeftSignature("Minecraft ",          "MinecraftData.VersionInfo");
+        for (char digit = '0'; digit <= '9'; digit++) {
+            registerLeftSignature(String.valueOf(digit), " fps ", "MinecraftData.Renderer");
+        }
+        registerLeftSignature("Integrated server @", "MinecraftData.Server");
+        registerLeftSignature("C: ",                 "MinecraftData.Chunks");
+        registerLeftSignature("E: ",                 "MinecraftData.Entities");
+        registerLeftSignature("P: ",                 "MinecraftData.Particles");
+        registerLeftSignature("Chunks[C]",           "MinecraftData.ChunksClient");
+        registerLeftSignature("Chunks[S]",           "MinecraftData.ChunksServer");
+        registerLeftSignature("minecraft:", "FC:",   "MinecraftData.Dimension");
+
+        // ─── second paragraph (LocationDetails) ───
+        registerLeftSignature("XYZ:",                "LocationDetails.Position");
+        registerLeftSignature("Block:",              "LocationDetails.Block");
+        registerLeftSignature("Chunk:",              "LocationDetails.Chunk");
+        registerLeftSignature("Facing:",             "LocationDetails.Facing");
+        registerLeftSignature("Client Light:",       "LocationDetails.Light");
+        registerLeftSignature("Waiting for chunk",   "LocationDetails.Light");
+        registerLeftSignature("Local Difficulty:",   "LocationDetails.LocalDifficulty");
+        registerLeftSignature("CH ",                 "LocationDetails.HeightmapClient");
+        registerLeftSignature("SH ",                 "LocationDetails.HeightmapServer");
+        registerLeftSignature("Biome:",              "LocationDetails.Biome");
+        registerLeftSignature("NoiseRouter",         "LocationDetails.NoiseRouter");
+        registerLeftSignature("Biome builder",       "LocationDetails.BiomeBuilder");
+        registerLeftSignature("SC:",                 "LocationDetails.MobCaps");
+        registerLeftSignature("Sounds:",             "LocationDetails.Sounds");
+
+        registerRightSignature("Java:",              "System.Java");
+        registerRightSignature("Mem:",               "System.Memory");
+        registerRightSignature("Allocation rate:",   "System.AllocationRate");
+        registerRightSignature("Allocated:",         "System.Allocated");
+        registerRightSignature("CPU:",               "System.CPU");
+        registerRightSignature("Display:",           "System.Display");
+        registerRightSignature("Targeted Block",     "TargetBlock.Coords");
+        registerRightSignature("Targeted Fluid",     "TargetFluid.Coords");
+        registerRightSignature("Targeted Entity",    "TargetEntity.Coords");
+    }
+
+    /**
+     * Teach the left column to recognise an F3 line, e.g. one your own mod adds to the vanilla list.
+     * Matching lines are handed to the handler registered for {@code lineKey}.
+     *
+     * @param prefix    what the trimmed line starts with
+     * @param contains  text that must also appear after the prefix, or null
+     * @param lineKey   the logical key (e.g. "MyMod.Temperature")
+     */
+    public static void registerLeftSignature(String prefix, String contains, String lineKey) {
+        leftClassifier.register(prefix, contains, lineKey);
+    }
+    public static void registerLeftSignature(String prefix, String lineKey) {
+        registerLeftSignature(prefix, null, lineKey);
+    }
+    public static void registerRightSignature(String prefix, String contains, String lineKey) {
+        rightClassifier.register(prefix, contains, lineKey);
+    }
+    public static void registerRightSignature(String prefix, String lineKey) {
+        registerRightSignature(prefix, null, lineKey);
+    }
+
+    /**
+     * Register a parser and a rebuilder for a specific lineKey.
+     * Any existing handler for that key will be replaced.
+     *
+     * @param lineKey    the logical key (e.g. "LocationDetails.Light")
+     * @param parser     runs whenever the raw line changes, and emits its datums
+     * @param rebuilder  given the datums the parser emitted, reconstructs the line; keep it stateless
+     */
+    public static void handleBuiltinF3(String lineKey, LineParser parser, Function<Map<String,String>,List<String>> rebuilder) {
+        handleBuiltinF3(lineKey, (rawLine, requested, datumEmitter) -> parser.parse(rawLine, datumEmitter), rebuilder);
+    }
+
+    /**
+     * Same as {@link #handleBuiltinF3(String, LineParser, Function)}, for a parser that wants to know which datums
+     * are blocked, e.g. to skip the substring for a value nobody will see.
+     */
+    public static void handleBuiltinF3(String lineKey, MaskedLineParser parser, Function<Map<String,String>,List<String>> rebuilder) {
+        lineParsers.put(lineKey, parser);
+        rebuilderMap.put(lineKey, rebuilder);
+        lineMemos.remove(lineKey);
+    }
+
     /**
      * Register a handler for a specific lineKey.
      * Any existing handler for that key will be replaced.
@@ -105,8 +461,144 @@ public class DebugDataParser {
      * @param handler   the parser/builder for that line
      */
     public static void handleBuiltinF3(String lineKey, LineHandler handler) {
-        lineHandlers.put(lineKey, handler);
+        lineParsers.put(lineKey, new LegacyParser(lineKey, handler));
+        rebuilderMap.remove(lineKey);
+        lineMemos.remove(lineKey);
+    }
+    /**
+     * Register a provider for a lineKey. It isn't used until {@link #useProvider(String, boolean)} switches it on.
+     *
+     * @param lineKey   the logical key (e.g. "LocationDetails.Position")
+     * @param provider  reads the line's datums from client state
+     */
+    public static void registerProvider(String lineKey, DatumProvider provider) {
+        registerProvider(lineKey, (MaskedDatumProvider) provider);
+    }
+
+    /** Same as {@link #registerProvider(String, DatumProvider)}, for a provider that emits typed values. */
+    public static void registerProvider(String lineKey, MaskedDatumProvider provider) {
+        providers.put(lineKey, provider);
+    }
+
+    /**
+     * Same as {@link #registerProvider(String, DatumProvider)}, for a provider that's too costly for every refresh.
+     * See {@link ScheduledProvider}.
+     *
+     * @param intervalMillis  how long its values are kept before it's run again, e.g. 1000
+     * @param async           run it on a virtual thread; F3 keeps showing its last values until the run finishes,
+     *                        so it mustn't touch anything that belongs to the render thread
+     */
+    public static void registerProvider(String lineKey, DatumProvider provider, long intervalMillis, boolean async) {
+        registerProvider(lineKey, (MaskedDatumProvider) provider, intervalMillis, async);
+    }
+
+    /** Same as {@link #registerProvider(String, DatumProvider, long, boolean)}, for a provider that emits typed values. */
+    public static void registerProvider(String lineKey, MaskedDatumProvider provider, long intervalMillis, boolean async) {
+        registerProvider(lineKey, new ScheduledProvider(lineKey, provider, intervalMillis, async));
+    }
+
+    /**
+     * Switch a line between its provider and vanilla's text.
+     *
+     * @return false if there's no provider registered for that lineKey
+     */
+    public static boolean useProvider(String lineKey, boolean enabled) {
+        if (!providers.containsKey(lineKey)) return false;
+        boolean changed = enabled ? providedLines.add(lineKey) : providedLines.remove(lineKey);
+        if (changed) {
+            LineMemo memo = lineMemos.get(lineKey);
+            if (memo != null) {
+                memo.rawLine = null;
+                memo.output = null;
+            }
+            RefreshGovernor.forceRefresh();
+        }
+        return true;
+    }
+
+    /**
+     * Register a value that's only worked out when someone can see it: while F3 is being drawn, its line is in a
+     * column and the datum isn't blocked. It's asked again at every refresh (see {@link RefreshGovernor}), on the
+     * render thread. The line is served by its suppliers straight away; show it with {@link #registerCustomLeftHandler}
+     * or {@link #registerCustomRightHandler}, whose rebuilder is handed the values.
+     *
+     * @param key       "lineKey.datumKey", e.g. "LestoraTemperature.Player.Wetness"
+     * @param supplier  the text to show, or null for none this time
+     */
+    public static void registerSupplier(String key, Supplier<String> supplier) {
+        suppliedLine(key).addText(key.substring(DatumKeys.splitAt(key) + 1), supplier);
+    }
+
+    /** Same as {@link #registerSupplier(String, Supplier)}, for a whole number, e.g. a count with unit null. */
+    public static void registerSupplier(String key, LongSupplier supplier, String unit) {
+        suppliedLine(key).addLong(key.substring(DatumKeys.splitAt(key) + 1), supplier, unit);
+    }
+
+    /** Same as {@link #registerSupplier(String, Supplier)}, for a number shown with {@code fractionDigits} decimals. */
+    public static void registerSupplier(String key, DoubleSupplier supplier, int fractionDigits, String unit) {
+        suppliedLine(key).addDouble(key.substring(DatumKeys.splitAt(key) + 1), supplier, fractionDigits, unit);
+    }
+
+    /** Take out a supplier added with registerSupplier; the line stops being provided once it has none left. */
+    public static void unregisterSupplier(String key) {
+        int dot = DatumKeys.splitAt(key);
+        String lineKey = key.substring(0, dot);
+        if (!(providers.get(lineKey) instanceof SuppliedLine line)) return;
+        if (line.remove(key.substring(dot + 1))) {
+            useProvider(lineKey, false);
+            providers.remove(lineKey);
+        }
+        invalidateLineCache(lineKey);
+    }
+
+    // the SuppliedLine for a key's lineKey, made and switched on the first time
+    private static SuppliedLine suppliedLine(String key) {
+        String lineKey = key.substring(0, DatumKeys.splitAt(key));
+        if (providers.get(lineKey) instanceof SuppliedLine line) return line;
+        SuppliedLine line = new SuppliedLine(lineKey);
+        registerProvider(lineKey, line);
+        useProvider(lineKey, true);
+        return line;
+    }
+
+    public static boolean isProvided(String lineKey) {
+        return providedLines.contains(lineKey);
+    }
+
+    /** Every lineKey that has a provider registered, switched on or not. */
+    public static Set<String> getProviderKeys() {
+        return Collections.unmodifiableSet(providers.keySet());
+    }
+
+    /**
+     * Set a datum from any thread, e.g. the integrated server's or a worker's. Everything else here belongs to the
+     * render thread; this only swaps the value into its own slot, and it's picked up the next time F3 is drawn.
+     * <p>
+     * Use your own lineKey, and show it with {@link #registerCustomLeftHandler} or {@link #registerCustomRightHandler};
+     * its rebuilder gets the published values, and is only run again once one of them changes.
+     *
+     * @param key    "lineKey.datumKey", e.g. "LestoraTemperature.Player.Wetness"
+     * @param value  the text to show, or null to unpublish it
+     */
+    public static void publish(String key, String value) {
+        PublishedDatums.publishText(key, value);
+    }
+
+    /** Same as {@link #publish(String, String)}, for a whole number, e.g. 12 with unit "ms". */
+    public static void publish(String key, long value, String unit) {
+        PublishedDatums.publishInt(key, value, 0, unit);
     }
+
+    /** Same as {@link #publish(String, String)}, for a number shown with {@code fractionDigits} decimals. */
+    public static void publish(String key, double value, int fractionDigits, String unit) {
+        PublishedDatums.publishDouble(key, value, fractionDigits, unit);
+    }
+
+    /** Take a published datum back out; safe from any thread. */
+    public static void unpublish(String key) {
+        PublishedDatums.unpublish(key);
+    }
+
     public static void registerCustomLeftHandler(String myKey, String afterKey, Function<Map<String,String>,List<String>> handler) {
         if (myKey.equals(afterKey)) return;
         leftLines.remove(myKey);
@@ -114,6 +606,7 @@ public class DebugDataParser {
         if (idx < 0) idx = 0;
         leftLines.add(idx, myKey);
         DebugDataParser.rebuilderMap.put(myKey, handler);
+        lineMemos.remove(myKey);
     }
     public static void registerCustomRightHandler(String myKey, String afterKey, Function<Map<String,String>,List<String>> handler) {
         if (myKey.equals(afterKey)) return;
@@ -122,6 +615,15 @@ public class DebugDataParser {
         if (idx < 0) idx = 0;
         rightLines.add(idx, myKey);
         DebugDataParser.rebuilderMap.put(myKey, handler);
+        lineMemos.remove(myKey);
+    }
+
+    /** Take out a line added with registerCustomLeftHandler or registerCustomRightHandler. */
+    public static void unregisterCustomHandler(String myKey) {
+        leftLines.remove(myKey);
+        rightLines.remove(myKey);
+        rebuilderMap.remove(myKey);
+        lineMemos.remove(myKey);
     }
 
     /**
@@ -131,287 +633,421 @@ public class DebugDataParser {
         return rebuilderMap.get(lineKey);
     }
 
-    public static void parse(List<String> lines) {
-        if (lines == null || lines.isEmpty()) return;
-
-        // decide which half we’re parsing by inspecting the very first line
-        String first = lines.get(0).trim();
-        if (first.startsWith("Minecraft")) {
-            parseLeft(lines);
-        } else {
-            parseRight(lines);
+    /**
+     * Forget every remembered raw line, so each line runs through its handler and rebuilder again on the next frame.
+     * Call this whenever something other than the raw text changes what a line should produce.
+     * Blocklist changes are picked up on their own.
+     */
+    public static void invalidateLineCache() {
+        for (LineMemo memo : lineMemos.values()) {
+            memo.rawLine = null;
+            memo.output = null;
         }
     }
 
-    private static void parseLeft(List<String> lines) {
-        Set<String> missing = new HashSet<>();
-        for (String lineKey : leftLines) {
-            if ("<br>".equals(lineKey)) continue;
-            String prefix = lineKey + ".";
-            for (String fullKey : data.keySet()) {
-                if (fullKey.startsWith(prefix)) {
-                    missing.add(fullKey);
-                }
-            }
+    /** Same as {@link #invalidateLineCache()}, for one line (e.g. "LocationDetails.Light"). */
+    public static void invalidateLineCache(String lineKey) {
+        LineMemo memo = lineMemos.get(lineKey);
+        if (memo != null) {
+            memo.rawLine = null;
+            memo.output = null;
         }
+    }
 
-        var lastSection = "";
-        var waitedForChunk = false;
-        for (String raw : lines) {
-            String line = raw.trim();
-            if (line.isEmpty()) continue;
+    /** How many handled lines were identical to the previous frame, and skipped their handler and rebuilder. */
+    public static long getLineCacheHits() {
+        return lineCacheHits;
+    }
 
-            if (line.contains("Waiting for chunk")) {
-                if (!waitedForChunk) {
-                    waitedForChunk = true;
-                    useHandler("LocationDetails.Light", line, missing);
-                }
-                continue;
-            }
+    /** How many handled lines had changed (or weren't cached yet) and went through their handler. */
+    public static long getLineCacheMisses() {
+        return lineCacheMisses;
+    }
 
-            // ─── first paragraph (MinecraftData) ───
-            if (line.startsWith("Minecraft ")) {
-                useHandler("MinecraftData.VersionInfo", line, missing);
-                continue;
-            }
+    public static void resetLineCacheStats() {
+        lineCacheHits = 0;
+        lineCacheMisses = 0;
+    }
 
-            if (line.contains(" fps ")) {
-                lastSection = "Renderer";
-                try {
-                    String[] tok = line.split("\\s+");
-                    Integer.parseInt(tok[0]); // Make sure this is the actual fps line.
-                    useHandler("MinecraftData.Renderer", line, missing);
-                    continue;
-                } catch (NumberFormatException ignored) { }
-            }
+    /**
+     * The left column to show without asking vanilla for it, or null if vanilla's lines are needed this frame
+     * (a refresh is due, or one of the column's lines is live). A column whose every vanilla line is blocked or
+     * served by a provider never needs vanilla, and is refreshed here instead.
+     */
+    public static List<String> getCachedLeftValues() {
+        if (!needsVanilla(leftLines)) return updateLeftValues(null);
+        if (!leftColumn.built || RefreshGovernor.isLeftDue() || blocklistChanged() || hasLiveVanillaLines(leftLines)) {
+            return null;
+        }
+        provideLines(leftLines, false);
+        return getLeftValues();
+    }
 
-            if (line.startsWith("Integrated server @")) {
-                lastSection = "Server";
-                useHandler("MinecraftData.Server", line, missing);
-                continue;
-            }
+    /** Same as {@link #getCachedLeftValues()}, for the right column. */
+    public static List<String> getCachedRightValues() {
+        if (!needsVanilla(rightLines)) return updateRightValues(null);
+        if (!rightColumn.built || RefreshGovernor.isRightDue() || blocklistChanged() || hasLiveVanillaLines(rightLines)) {
+            return null;
+        }
+        provideLines(rightLines, false);
+        return getRightValues();
+    }
 
-            if (line.startsWith("C: ")) {
-                lastSection = "Chunks";
-                useHandler("MinecraftData.Chunks", line, missing);
-                continue;
-            }
+    /**
+     * Parse vanilla's left column (null if vanilla wasn't asked), run its providers, and return the rebuilt column.
+     * Between refreshes only the live lines are parsed, everything else keeps what it had at the last refresh.
+     * Each full refresh also samples the column's numeric datums into {@link DatumHistory}, and into the
+     * {@link SessionRecorder} while a session is being recorded.
+     */
+    public static List<String> updateLeftValues(List<String> lines) {
+        boolean full = !leftColumn.built || RefreshGovernor.isLeftDue() || blocklistChanged();
+        syncBlocklist();
+        if (full && lines == null) {
+            // vanilla was skipped, so none of its lines are on screen
+            markUnseen(leftLines);
+            removeUnseen(leftLines);
+        } else if (full) {
+            parse(lines);
+        } else {
+            parseLive(lines);
+        }
+        provideLines(leftLines, full);
+        if (full) {
+            RefreshGovernor.leftRefreshed();
+            long now = System.nanoTime();
+            DatumHistory.record(store, leftLines, now);
+            SessionRecorder.record(store, leftLines, now);
+        }
+        return getLeftValues();
+    }
 
-            if (line.startsWith("E: ")) {
-                lastSection = "Entities";
-                useHandler("MinecraftData.Entities", line, missing);
-                continue;
-            }
+    /** Same as {@link #updateLeftValues(List)}, for the right column. */
+    public static List<String> updateRightValues(List<String> lines) {
+        boolean full = !rightColumn.built || RefreshGovernor.isRightDue() || blocklistChanged();
+        syncBlocklist();
+        if (full && lines == null) {
+            // vanilla was skipped, so none of its lines are on screen
+            markUnseen(rightLines);
+            removeUnseen(rightLines);
+        } else if (full) {
+            parse(lines);
+        } else {
+            parseLive(lines);
+        }
+        provideLines(rightLines, full);
+        if (full) {
+            RefreshGovernor.rightRefreshed();
+            long now = System.nanoTime();
+            DatumHistory.record(store, rightLines, now);
+            SessionRecorder.record(store, rightLines, now);
+        }
+        return getRightValues();
+    }
 
-            if (line.startsWith("P: ")) {
-                lastSection = "Particles";
-                useHandler("MinecraftData.Particles", line, missing);
-                continue;
-            }
+    private static boolean blocklistChanged() {
+        if (blocklist != blocked) adoptBlocklist();
+        return blocklistGeneration != blocked.generation();
+    }
 
-            if (line.startsWith("Chunks[C]")) {
-                lastSection = "ChunksClient";
-                useHandler("MinecraftData.ChunksClient", line, missing);
-                continue;
-            }
+    // someone assigned a set of their own to blocklist, as the old field allowed; take its keys and put ours back
+    private static void adoptBlocklist() {
+        Set<String> replacement = blocklist;
+        blocklist = blocked;
+        blocked.clear();
+        if (replacement != null) blocked.addAll(replacement);
+    }
 
-            if (line.startsWith("Chunks[S]")) {
-                lastSection = "ChunksServer";
-                useHandler("MinecraftData.ChunksServer", line, missing);
-                continue;
-            }
+    // lines remembered under the old blocklist may still hold (or be missing) datums it changed
+    private static void syncBlocklist() {
+        if (blocklistChanged()) {
+            blocklistGeneration = blocked.generation();
+            invalidateLineCache();
+            RefreshGovernor.forceRefresh();
+        }
+    }
 
-            if (line.startsWith("minecraft:") && line.contains("FC:")) {
-                lastSection = "Dimension";
-                useHandler("MinecraftData.Dimension", line, missing);
-                continue;
-            }
+    // a live line that's still read from vanilla's text means vanilla has to produce the column every frame
+    private static boolean hasLiveVanillaLines(List<String> layout) {
+        for (String lineKey : RefreshGovernor.liveKeys) {
+            if (!providedLines.contains(lineKey) && layout.contains(lineKey)) return true;
+        }
+        return false;
+    }
 
-            // ─── second paragraph (LocationDetails) ───
-            if (line.startsWith("XYZ:")) {
-                lastSection = "Position";
-                useHandler("LocationDetails.Position", line, missing);
-                continue;
-            }
+    // false once every line of the column that vanilla would produce is blocked or switched over to its provider
+    private static boolean needsVanilla(List<String> layout) {
+        for (String lineKey : layout) {
+            if (lineKey.equals("<br>") || providedLines.contains(lineKey)) continue;
+            // custom lines only have a rebuilder, and don't come from vanilla's text
+            boolean fromVanilla = lineParsers.containsKey(lineKey) || !rebuilderMap.containsKey(lineKey);
+            if (fromVanilla && !isLineBlocked(lineKey)) return true;
+        }
+        return false;
+    }
 
-            if (line.startsWith("Block:")) {
-                lastSection = "Block";
-                useHandler("LocationDetails.Block", line, missing);
-                continue;
-            }
+    /**
+     * Whether nothing on this line can be shown: the line itself (or its section) is blocked, or every datum it has
+     * ever emitted is. Vanilla's work for such lines is skipped where it can be.
+     *
+     * @param lineKey  the logical key (e.g. "LocationDetails.NoiseRouter")
+     */
+    public static boolean isLineBlocked(String lineKey) {
+        if (blocked.isEmpty()) return false;
+        if (blockedLinesGeneration != blocked.generation() || blockedLinesDatumCount != DatumKeys.count()) {
+            blockedLines.clear();
+            blockedLinesGeneration = blocked.generation();
+            blockedLinesDatumCount = DatumKeys.count();
+        }
+        Boolean blocked = blockedLines.get(lineKey);
+        if (blocked == null) {
+            blocked = decideLineBlocked(lineKey);
+            blockedLines.put(lineKey, blocked);
+        }
+        return blocked;
+    }
 
-            if (line.startsWith("Chunk:")) {
-                lastSection = "Chunk";
-                useHandler("LocationDetails.Chunk", line, missing);
-                continue;
-            }
+    private static boolean decideLineBlocked(String lineKey) {
+        if (blocked.isBlocked(lineKey)) return true;
+        // e.g. "!MinecraftData (TopLeft)" blocks each datum, not the lines themselves
+        Collection<Integer> ids = DatumKeys.idsFor(lineKey).values();
+        if (ids.isEmpty()) return false;
+        for (int id : ids) {
+            if (!blocked.isBlocked(id)) return false;
+        }
+        return true;
+    }
 
-            if (line.startsWith("Facing:")) {
-                lastSection = "Facing";
-                useHandler("LocationDetails.Facing", line, missing);
-                continue;
+    private static void provideLines(List<String> layout, boolean full) {
+        if (providedLines.isEmpty()) return;
+        for (String lineKey : layout) {
+            if (providedLines.contains(lineKey) && (full || RefreshGovernor.isLive(lineKey))) {
+                provideLine(lineKey);
             }
+        }
+    }
 
-            if (line.startsWith("Client Light:")) {
-                lastSection = "Light";
-                useHandler("LocationDetails.Light", line, missing);
-                continue;
-            }
+    private static void provideLine(String lineKey) {
+        LineMemo memo = lineMemos.computeIfAbsent(lineKey, LineMemo::new);
+        memo.seen = true;
+        memo.echo = null;
 
-            if (line.startsWith("Local Difficulty:")) {
-                lastSection = "LocalDifficulty";
-                useHandler("LocationDetails.LocalDifficulty", line, missing);
-                continue;
+        DatumStore.Line datums = memo.datums;
+        datums.begin();
+        // nobody would see any of it, so the provider isn't asked and the line loses its datums
+        if (memo.mask.wantsAny()) {
+            long started = HandlerProfiler.start();
+            try {
+                providers.get(lineKey).provide(memo.mask, memo.emitter);
+            } catch (Exception e) {
+                System.err.println("Error in provider for " + lineKey + ": " + e.getMessage());
             }
+            HandlerProfiler.stop(HandlerProfiler.Stage.PROVIDE, lineKey, started);
+        }
+        datums.sweep();
+        long staleTenths = providers.get(lineKey) instanceof ScheduledProvider scheduled
+                ? Math.round(scheduled.getStaleSeconds() * 10) : 0;
+        if (datums.takeDirty() || !PROVIDED.equals(memo.rawLine) || staleTenths != memo.staleTenths) memo.output = null;
+        memo.rawLine = PROVIDED;
+        memo.staleTenths = staleTenths;
+    }
 
-            if (line.startsWith("CH ")) {
-                lastSection = "HeightmapClient";
-                useHandler("LocationDetails.HeightmapClient", line, missing);
-                continue;
-            }
+    /** Like {@link #parse(List)}, but only lines in {@link RefreshGovernor#liveKeys} go through their handlers. */
+    public static void parseLive(List<String> lines) {
+        liveOnly = true;
+        try {
+            parse(lines);
+        } finally {
+            liveOnly = false;
+        }
+    }
 
-            if (line.startsWith("SH ")) {
-                lastSection = "HeightmapServer";
-                useHandler("LocationDetails.HeightmapServer", line, missing);
-                continue;
-            }
+    public static void parse(List<String> lines) {
+        if (lines == null || lines.isEmpty()) return;
+        syncBlocklist();
 
-            if (line.startsWith("Biome:")) {
-                lastSection = "Biome";
-                useHandler("LocationDetails.Biome", line, missing);
-                continue;
-            }
+        // decide which half we’re parsing by inspecting the very first line
+        String first = lines.get(0).trim();
+        if (first.startsWith("Minecraft")) {
+            parseLeft(lines);
+        } else {
+            parseRight(lines);
+        }
+    }
 
-            if (line.startsWith("NoiseRouter")) {
-                lastSection = "NoiseRouter";
-                useHandler("LocationDetails.NoiseRouter", line, missing);
-                continue;
-            }
+    private static void parseLeft(List<String> lines) {
+        if (!liveOnly) {
+            markUnseen(leftLines);
+            markUnseen(UnknownLines.getLineKeys());
+        }
 
-            if (line.startsWith("Biome builder")) {
-                lastSection = "BiomeBuilder";
-                useHandler("LocationDetails.BiomeBuilder", line, missing);
-                continue;
-            }
+        var lastSection = "";
+        var waitedForChunk = false;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty()) continue;
 
-            if (line.startsWith("SC:")) {
-                lastSection = "MobCaps";
-                useHandler("LocationDetails.MobCaps", line, missing);
+            String lineKey = leftClassifier.classifyAt(i, line);
+            if (lineKey == null) {
+                if (!liveOnly) useUnknown(line, lastSection);
                 continue;
             }
 
-            if (line.startsWith("Sounds:")) {
-                lastSection = "Sounds";
-                useHandler("LocationDetails.Sounds", line, missing);
-                continue;
+            if (line.startsWith("Waiting for chunk")) {
+                if (waitedForChunk) continue;
+                waitedForChunk = true;
             }
 
-            System.err.println("Lestora Debug. New line found after " + lastSection + "? Couldn't find line parsing logic for: " + line);
+            lastSection = lineKey;
+            useHandler(lineKey, line);
         }
 
-        for (String orphan : missing) {
-            data.remove(orphan);
+        if (!liveOnly) {
+            removeUnseen(leftLines);
+            removeUnseen(UnknownLines.getLineKeys());
         }
     }
 
+    // a line nothing was registered for is read generically, under "Unknown.<label>", and kept out of the columns
+    private static void useUnknown(String line, String lastSection) {
+        UnknownLines.Shape shape = UnknownLines.shapeOf(line, lastSection);
+        if (shape == null) return;
+        lineParsers.putIfAbsent(shape.lineKey, shape);
+        useHandler(shape.lineKey, line);
+    }
+
     private static void parseRight(List<String> lines) {
-        Set<String> missing = new HashSet<>();
-        for (String lineKey : rightLines) {
-            if ("<br>".equals(lineKey)) continue;
-            String prefix = lineKey + ".";
-            for (String fullKey : data.keySet()) {
-                if (fullKey.startsWith(prefix)) {
-                    missing.add(fullKey);
-                }
-            }
-        }
+        if (!liveOnly) markUnseen(rightLines);
 
         for (int i = 0; i < lines.size(); i++) {
             String raw = lines.get(i);
             String line = raw.trim();
             if (line.isEmpty()) continue;
 
-            if (line.startsWith("Java:")) {
-                useHandler("System.Java", line, missing);
-                continue;
-            }
-
-            if (line.startsWith("Mem:")) {
-                useHandler("System.Memory", line, missing);
-                continue;
-            }
+            String lineKey = rightClassifier.classifyAt(i, line);
+            if (lineKey == null) continue;
 
-            if (line.startsWith("Allocation rate:")) {
-                useHandler("System.AllocationRate", line, missing);
-                continue;
-            }
+            switch (lineKey) {
+                case "System.Display" -> {
+                    useHandler("System.Display", line);
 
-            if (line.startsWith("Allocated:")) {
-                useHandler("System.Allocated", line, missing);
-                continue;
-            }
+                    // 2) the very next line is the GPU renderer
+                    if (i+1 < lines.size()) {
+                        useHandler("System.Renderer", lines.get(++i).trim());
+                    }
 
-            if (line.startsWith("CPU:")) {
-                useHandler("System.CPU", line, missing);
-                continue;
+                    // 3) and the line after that is the OpenGL version
+                    if (i+1 < lines.size()) {
+                        useHandler("System.OpenGLVersion", lines.get(++i).trim());
+                    }
+                }
+                case "TargetBlock.Coords"  -> i = parseTargetSection(lines, i, "TargetBlock");
+                case "TargetFluid.Coords"  -> i = parseTargetSection(lines, i, "TargetFluid");
+                case "TargetEntity.Coords" -> i = parseTargetSection(lines, i, "TargetEntity");
+                default -> useHandler(lineKey, line);
             }
+        }
 
-            if (line.startsWith("Display:")) {
-                useHandler("System.Display", line, missing);
-
-                // 2) the very next line is the GPU renderer
-                if (i+1 < lines.size()) {
-                    useHandler("System.Renderer", lines.get(++i).trim(), missing);
-                }
+        if (!liveOnly) removeUnseen(rightLines);
+    }
 
-                // 3) and the line after that is the OpenGL version
-                if (i+1 < lines.size()) {
-                    useHandler("System.OpenGLVersion", lines.get(++i).trim(), missing);
-                }
+    private static void markUnseen(List<String> lineKeys) {
+        for (String lineKey : lineKeys) {
+            LineMemo memo = lineMemos.get(lineKey);
+            if (memo != null && !isSelfServed(lineKey)) memo.seen = false;
+        }
+    }
 
-                continue;
+    // lines that didn't show up this frame lose their datums
+    private static void removeUnseen(List<String> lineKeys) {
+        for (String lineKey : lineKeys) {
+            if (isSelfServed(lineKey)) continue;
+            LineMemo memo = lineMemos.get(lineKey);
+            if (memo == null || !memo.seen) store.clear(lineKey);
+            // if it comes back, even unchanged, it has to emit its datums again
+            if (memo != null && !memo.seen) {
+                memo.rawLine = null;
+                memo.output = null;
             }
+        }
+    }
 
-            line = line.replace("\u00A7n", "");
-            if (line.startsWith("Targeted Block")) {
-                i = parseTargetSection(lines, i, "TargetBlock", missing);
-            }
-            else if (line.startsWith("Targeted Fluid")) {
-                i = parseTargetSection(lines, i, "TargetFluid", missing);
-            }
-            else if (line.startsWith("Targeted Entity")) {
-                i = parseTargetSection(lines, i, "TargetEntity", missing);
+    // filled in by its provider or by publish, rather than from vanilla's text
+    private static boolean isSelfServed(String lineKey) {
+        return providedLines.contains(lineKey) || PublishedDatums.isPublished(lineKey);
+    }
+
+    // everything published since the last frame goes into the store, and marks its line for rebuilding
+    private static void applyPublished() {
+        if (!PublishedDatums.takeChanged()) return;
+        for (PublishedDatums.Slot slot : PublishedDatums.slots()) {
+            if (!slot.take()) continue;
+            LineMemo memo = lineMemos.computeIfAbsent(slot.lineKey, LineMemo::new);
+            memo.seen = true;
+            memo.echo = null;
+            if (slot.isRemoved()) {
+                memo.datums.remove(slot.datumKey);
+            } else {
+                slot.emitTo(memo.emitter);
             }
+            if (memo.datums.takeDirty() || !PUBLISHED.equals(memo.rawLine)) memo.output = null;
+            memo.rawLine = PUBLISHED;
         }
+    }
 
-        for (String orphan : missing) {
-            data.remove(orphan);
+    private static void useHandler(String lineKey, String line) {
+        if (liveOnly && !RefreshGovernor.isLive(lineKey)) return;
+        // its provider (or whoever publishes to it) fills it in; vanilla's text for it is ignored
+        if (isSelfServed(lineKey)) return;
+
+        LineMemo memo = lineMemos.computeIfAbsent(lineKey, LineMemo::new);
+        // nobody would see any of it, so it isn't handed to its handler; it's left unseen and loses its datums
+        if (!memo.mask.wantsAny()) return;
+        memo.seen = true;
+        if (line.equals(memo.rawLine)) {
+            // identical to last frame: the datums it emitted are still in place, and so is its rebuilt output
+            lineCacheHits++;
+            return;
         }
-    }
 
-    private static void useHandler(String lineKey, String line, Set<String> missing) {
-        LineHandler handler = lineHandlers.get(lineKey);
-        Function<Map<String,String>,List<String>> handlerResult = x -> Collections.singletonList(line);
-        if (handler != null){
+        lineCacheMisses++;
+        String previousEcho = memo.echo;
+        memo.rawLine = null;
+        memo.echo = null;
+
+        MaskedLineParser parser = lineParsers.get(lineKey);
+        boolean handled = true;
+        DatumStore.Line datums = memo.datums;
+        datums.begin();
+        if (parser == null) {
+            memo.echo = line;
+        } else {
+            long started = HandlerProfiler.start();
             try {
-                handlerResult = handler.handle(line, (datumKey, datumValue) -> {
-                    putIfNotBlocked(lineKey + "." + datumKey, datumValue, missing);
-                });
+                parser.parse(line, memo.mask, memo.emitter);
             } catch (Exception e) {
+                handled = false;
+                memo.echo = line;
                 System.err.println("Error in handler for " + lineKey + ": " + e.getMessage());
             }
+            HandlerProfiler.stop(HandlerProfiler.Stage.PARSE, lineKey, started);
+        }
+        // anything the handler didn't emit this time is gone
+        datums.sweep();
+        // a new raw line only needs rebuilding if it actually changed a datum (old-style handlers always do)
+        if (datums.takeDirty() || !Objects.equals(previousEcho, memo.echo) || parser instanceof LegacyParser) {
+            memo.output = null;
         }
-        rebuilderMap.put(lineKey, handlerResult);
+        if (handled) memo.rawLine = line;
     }
 
-    private static int parseTargetSection(List<String> lines, int i, String type, Set<String> missing) {
+    private static int parseTargetSection(List<String> lines, int i, String type) {
         // 1) header “Targeted X: coords…”
         String header = lines.get(i).trim();
         if (header.indexOf(':') >= 0){
-            useHandler(type + ".Coords", header.substring(header.indexOf(':') + 1).trim(), missing);
+            useHandler(type + ".Coords", header.substring(header.indexOf(':') + 1).trim());
         }
         else {
-            useHandler(type + ".Coords", "", missing);
+            useHandler(type + ".Coords", "");
         }
 
         int idx = i;
@@ -419,7 +1055,7 @@ public class DebugDataParser {
         // 2) next line is the resource‐location (if present)
         if (idx + 1 < lines.size()) {
             String resource = lines.get(++idx).trim();
-            useHandler(type + ".ResourceLocation", resource, missing);
+            useHandler(type + ".ResourceLocation", resource);
         }
 
         // 3) collect states & tags
@@ -439,97 +1075,142 @@ public class DebugDataParser {
 
         // 4) write states/tags if any
         if (!states.isEmpty()) {
-            useHandler(type + ".States", String.join(";", states), missing);
+            useHandler(type + ".States", String.join(";", states));
         }
         if (!tags.isEmpty()) {
-            useHandler(type + ".Tags", String.join(";", tags), missing);
+            useHandler(type + ".Tags", String.join(";", tags));
         }
 
         return idx;
     }
 
-    private static void putIfNotBlocked(String key, String value, Set<String> missing) {
-        if (StringUtils.isBlank(key) || StringUtils.isBlank(value)) return;
+    private static void putIfNotBlocked(DatumStore.Line datums, String datumKey, String value) {
+        if (StringUtils.isBlank(value)) return;
 
-        if (isBlocked(key)) {
-            data.remove(key);
-        } else {
-            data.put(key, value);
-        }
-
-        missing.remove(key);
+        int id = slotIfNotBlocked(datums, datumKey);
+        if (id >= 0) datums.put(id, value);
     }
 
-    private static boolean isBlocked(String key) {
-        // direct match
-        if (blocklist.contains(key)) return true;
+    // the datum's slot, or -1 (after dropping whatever it held) if it's blocked
+    private static int slotIfNotBlocked(DatumStore.Line datums, String datumKey) {
+        if (StringUtils.isBlank(datumKey)) return -1;
 
-        // walk up the hierarchy
-        int idx = key.lastIndexOf('.');
-        while (idx != -1) {
-            key = key.substring(0, idx);
-            if (blocklist.contains(key)) {
-                return true;
-            }
-            idx = key.lastIndexOf('.');
+        int id = datums.slot(datumKey);
+        if (blocked.isBlocked(id)) {
+            datums.remove(id);
+            return -1;
         }
-        return false;
+        return id;
     }
 
     public static List<String> getAllKeys() {
         return new ArrayList<>(data.keySet());
     }
 
+    /**
+     * The rebuilt left column. The list is reused from frame to frame, and only lines whose datums changed are
+     * rebuilt and spliced in; copy it if you need to keep it.
+     */
     public static List<String> getLeftValues() {
-        List<String> output = new ArrayList<>();
+        return buildColumn(leftLines, leftColumn);
+    }
+
+    /** The rebuilt right column. Reused across frames the same way as {@link #getLeftValues()}. */
+    public static List<String> getRightValues() {
+        return buildColumn(rightLines, rightColumn);
+    }
+
+    /**
+     * Where a line ended up in the left column the last time it was built, without rebuilding it.
+     *
+     * @return the row of its first line of text, or -1 if it isn't in the left column or showed nothing
+     */
+    public static int findLeftRow(String lineKey) {
+        return leftColumn.rowOf(lineKey);
+    }
 
-        boolean firstIsBreak = leftLines.get(0).equals("<br>");
-        for (String key : leftLines) {
-            if (key.equals("<br>")) {
-                if (!output.isEmpty() || firstIsBreak) {
-                    output.add("§n");
+    /** Same as {@link #findLeftRow(String)}, for the right column. */
+    public static int findRightRow(String lineKey) {
+        return rightColumn.rowOf(lineKey);
+    }
+
+    /** The text of one row of the left column as last built, or null. */
+    public static String getLeftRow(int row) {
+        return leftColumn.row(row);
+    }
+
+    public static String getRightRow(int row) {
+        return rightColumn.row(row);
+    }
+
+    private static List<String> buildColumn(List<String> layout, Column column) {
+        applyPublished();
+        List<String> lines = column.handOut();
+        if (lines.size() < column.size || !column.sameLayout(layout)) column.reset(layout);
+
+        boolean firstIsBreak = !layout.isEmpty() && layout.get(0).equals("<br>");
+        int pos = 0;
+        for (int i = 0; i < column.layout.length; i++) {
+            String key = column.layout[i];
+            List<String> segment = key.equals("<br>")
+                    ? (pos > 0 || firstIsBreak ? lineBreak : Collections.emptyList())
+                    : RebuildLine(key);
+
+            Object previous = column.segments[i];
+            if (segment != previous) {
+                if (!segment.equals(previous)) {
+                    List<String> range = lines.subList(pos, pos + column.counts[i]);
+                    range.clear();
+                    range.addAll(segment);
+                    column.counts[i] = segment.size();
                 }
+                column.segments[i] = segment;
             }
-            RebuildLine(key, output);
+            pos += column.counts[i];
         }
 
-        return output;
+        column.size = lines.size();
+        column.built = true;
+        return lines;
     }
 
-    private static void RebuildLine(String key, List<String> output) {
-        var rebuilder = getRebuilder(key);
-        if (rebuilder == null) return;
-        Map<String,String> valuesMap = new LinkedHashMap<>();
-        for (var entry : data.entrySet()) {
-            String fullKey = entry.getKey();
-            if (fullKey.startsWith(key + ".")) {
-                String datumKey = fullKey.substring(key.length() + 1);
-                valuesMap.put(datumKey, entry.getValue());
-            }
+    // an async provider's values are old: say so after the line's last row, e.g. "(stale 4.2s)"
+    private static List<String> markStale(List<String> lines, long tenths) {
+        List<String> marked = new ArrayList<>(lines);
+        marked.set(marked.size() - 1, marked.get(marked.size() - 1) + " §7(stale " + tenths / 10 + "." + tenths % 10 + "s)");
+        return marked;
+    }
+
+    private static List<String> RebuildLine(String key) {
+        LineMemo memo = lineMemos.get(key);
+        boolean seen = memo != null && memo.seen;
+
+        // a vanilla line that isn't on screen this frame has nothing to rebuild; custom lines have no parser
+        if (!seen && lineParsers.containsKey(key)) return Collections.emptyList();
+        if (seen && memo.output != null) return memo.output;
+        if (seen && memo.echo != null) {
+            memo.output = Collections.singletonList(memo.echo);
+            return memo.output;
         }
+
+        var rebuilder = getRebuilder(key);
+        if (rebuilder == null) return Collections.emptyList();
+        long started = HandlerProfiler.start();
         try {
-            var outList = rebuilder.apply(valuesMap);
-            if (outList != null) {
-                output.addAll(outList);
+            var values = store.values(key);
+            var outList = rebuilder.apply(values);
+            if (outList == null) outList = Collections.emptyList();
+            if (!outList.isEmpty() && seen && memo.staleTenths > 0 && providedLines.contains(key)) {
+                outList = markStale(outList, memo.staleTenths);
             }
+            if (seen && memo.rawLine != null) memo.output = outList;
+            return outList;
         } catch (Exception e) {
             System.err.println("Error rebuilding " + key + ": " + e.getMessage());
+            return Collections.emptyList();
+        } finally {
+            // the profile section itself isn't worth a row
+            if (!key.equals(HandlerProfiler.LINE_KEY)) HandlerProfiler.stop(HandlerProfiler.Stage.REBUILD, key, started);
         }
     }
-
-    public static List<String> getRightValues() {
-        List<String> output = new ArrayList<>();
-
-        boolean firstIsBreak = rightLines.get(0).equals("<br>");
-        for (String key : rightLines) {
-            if (key.equals("<br>")) {
-                if (!output.isEmpty() || firstIsBreak) {
-                    output.add("§n");
-                }
-            }
-            RebuildLine(key, output);
-        }
-
-        return output;
-    }
-}
\ No newline at end of file
+}
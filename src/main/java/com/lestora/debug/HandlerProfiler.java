@@ -0,0 +1,182 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * Times every line's parser, provider and rebuilder, and each F3 column as a whole (vanilla building it included),
+ * while switched on. Each timer keeps its last {@link #RECENT} samples, so the mean and 99th percentile describe
+ * what F3 costs right now rather than since the game started.
+ * <p>
+ * Timed code calls {@link #start()} and then {@link #stop}; while profiling is off that's a static boolean check and
+ * nothing else. Switching it on also adds the "Lestora.Profile" section to the top of the right column.
+ */
+public final class HandlerProfiler {
+    public static final String LINE_KEY = "Lestora.Profile";
+    public static final int RECENT = 256;
+    private static final long OVERLAY_REFRESH_NANOS = 500_000_000L;
+    private static final int OVERLAY_ROWS = 5;
+
+    public enum Stage {
+        PARSE("parse"), PROVIDE("provide"), REBUILD("rebuild"), COLUMN("column");
+
+        final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    /** One timed thing, e.g. the parser of "LocationDetails.NoiseRouter". */
+    public static final class Timer {
+        public final Stage stage;
+        public final String key;
+        private final long[] recent = new long[RECENT];
+        private int head;
+        private int size;
+        private long count;
+
+        private Timer(Stage stage, String key) {
+            this.stage = stage;
+            this.key = key;
+        }
+
+        private void add(long nanos) {
+            recent[head] = nanos;
+            head = (head + 1) % RECENT;
+            if (size < RECENT) size++;
+            count++;
+        }
+
+        /** Every call timed since the last reset. */
+        public long count() {
+            return count;
+        }
+
+        /** Mean of the recent samples, in nanoseconds. */
+        public double meanNanos() {
+            if (size == 0) return 0;
+            long total = 0;
+            for (int i = 0; i < size; i++) total += recent[i];
+            return (double) total / size;
+        }
+
+        /** @param percent  e.g. 99; nearest rank over the recent samples, in nanoseconds */
+        public long percentileNanos(double percent) {
+            if (size == 0) return 0;
+            long[] sorted = Arrays.copyOf(recent, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percent / 100 * size);
+            return sorted[Math.max(0, Math.min(size - 1, rank - 1))];
+        }
+
+        /** e.g. "LocationDetails.NoiseRouter parse" */
+        public String label() {
+            return key + " " + stage.label;
+        }
+    }
+
+    private static boolean enabled;
+    private static final EnumMap<Stage, Map<String, Timer>> timers = new EnumMap<>(Stage.class);
+    private static List<String> overlay = Collections.emptyList();
+    private static long overlayBuiltAt;
+
+    static {
+        for (Stage stage : Stage.values()) timers.put(stage, new HashMap<>());
+    }
+
+    private HandlerProfiler() { }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enable) {
+        if (enable == enabled) return;
+        enabled = enable;
+        if (enable) {
+            DebugDataParser.registerCustomRightHandler(LINE_KEY, "System.Java", data -> overlayLines());
+        } else {
+            DebugDataParser.unregisterCustomHandler(LINE_KEY);
+        }
+        RefreshGovernor.forceRefresh();
+    }
+
+    public static void reset() {
+        for (Map<String, Timer> byKey : timers.values()) byKey.clear();
+        overlay = Collections.emptyList();
+        overlayBuiltAt = 0;
+    }
+
+    /** @return a start time to hand to {@link #stop}, or 0 while profiling is off */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** Record the time since {@code started}, e.g. as the {@link Stage#PARSE} of "System.Memory". */
+    public static void stop(Stage stage, String key, long started) {
+        if (started == 0L || !enabled) return;
+        long elapsed = System.nanoTime() - started;
+        Map<String, Timer> byKey = timers.get(stage);
+        Timer timer = byKey.get(key);
+        if (timer == null) {
+            timer = new Timer(stage, key);
+            byKey.put(key, timer);
+        }
+        timer.add(elapsed);
+    }
+
+    /** The column timers first ("Left", "Right"), then every line timer. */
+    public static List<Timer> getTimers() {
+        List<Timer> all = new ArrayList<>(timers.get(Stage.COLUMN).values());
+        for (Stage stage : Stage.values()) {
+            if (stage != Stage.COLUMN) all.addAll(timers.get(stage).values());
+        }
+        return all;
+    }
+
+    /**
+     * The slowest line timers.
+     *
+     * @param byP99  rank by 99th percentile instead of mean
+     */
+    public static List<Timer> slowest(int count, boolean byP99) {
+        // each timer's figure is worked out once; p99 copies and sorts its samples
+        record Ranked(Timer timer, double nanos) { }
+        List<Ranked> ranked = new ArrayList<>();
+        for (Stage stage : Stage.values()) {
+            if (stage == Stage.COLUMN) continue;
+            for (Timer timer : timers.get(stage).values()) {
+                ranked.add(new Ranked(timer, byP99 ? timer.percentileNanos(99) : timer.meanNanos()));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(Ranked::nanos).reversed());
+
+        List<Timer> lines = new ArrayList<>(Math.min(count, ranked.size()));
+        for (int i = 0; i < count && i < ranked.size(); i++) lines.add(ranked.get(i).timer());
+        return lines;
+    }
+
+    /** e.g. "12.3 / 40.1µs" for a mean and p99 */
+    public static String describe(Timer timer) {
+        return String.format(Locale.ROOT, "%.1f / %.1fµs", timer.meanNanos() / 1000.0, timer.percentileNanos(99) / 1000.0);
+    }
+
+    // the section's lines, worked out again at most twice a second so it doesn't flicker or cost much itself
+    private static List<String> overlayLines() {
+        long now = System.nanoTime();
+        if (overlayBuiltAt != 0 && now - overlayBuiltAt < OVERLAY_REFRESH_NANOS) return overlay;
+        overlayBuiltAt = now;
+
+        List<String> lines = new ArrayList<>();
+        lines.add("§nLestora Profile (mean / p99)");
+        for (Timer column : timers.get(Stage.COLUMN).values()) {
+            lines.add(column.key + " column: " + describe(column));
+        }
+        for (Timer timer : slowest(OVERLAY_ROWS, false)) {
+            lines.add(timer.label() + ": " + describe(timer));
+        }
+        lines.add("");
+        overlay = lines;
+        return overlay;
+    }
+}
@@ -1,5 +1,7 @@
 package com.lestora.debug;
 
+import com.lestora.debug.DebugDataParser.DatumEmitter;
+import com.lestora.debug.DebugDataParser.DatumMask;
 import net.minecraft.ChatFormatting;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
@@ -9,9 +11,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.function.BiConsumer;
-import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Mod("lestora_debug")
 public class LestoraDebugMod {
@@ -20,1155 +19,1210 @@ public class LestoraDebugMod {
     }
 
     private void defaultF3Configuration() {
-        DebugDataParser.handleBuiltinF3("MinecraftData.VersionInfo",       LestoraDebugMod::mcVersionInfo);
-        DebugDataParser.handleBuiltinF3("MinecraftData.Renderer",          LestoraDebugMod::mcRenderer);
-        DebugDataParser.handleBuiltinF3("MinecraftData.Server",            LestoraDebugMod::mcServer);
-        DebugDataParser.handleBuiltinF3("MinecraftData.Chunks",            LestoraDebugMod::mcChunks);
-        DebugDataParser.handleBuiltinF3("MinecraftData.Entities",          LestoraDebugMod::mcEntities);
-        DebugDataParser.handleBuiltinF3("MinecraftData.Particles",         LestoraDebugMod::mcParticles);
-        DebugDataParser.handleBuiltinF3("MinecraftData.ChunksClient",      LestoraDebugMod::mcChunksClient);
-        DebugDataParser.handleBuiltinF3("MinecraftData.ChunksServer",      LestoraDebugMod::mcChunksServer);
-        DebugDataParser.handleBuiltinF3("MinecraftData.Dimension",         LestoraDebugMod::mcDimension);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Position",        LestoraDebugMod::locPosition);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Block",           LestoraDebugMod::locBlock);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Chunk",           LestoraDebugMod::locChunk);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Facing",          LestoraDebugMod::locFacing);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Light",           LestoraDebugMod::locLight);
-        DebugDataParser.handleBuiltinF3("LocationDetails.LocalDifficulty", LestoraDebugMod::locLocalDifficulty);
-        DebugDataParser.handleBuiltinF3("LocationDetails.HeightmapClient", LestoraDebugMod::locHeightmapClient);
-        DebugDataParser.handleBuiltinF3("LocationDetails.HeightmapServer", LestoraDebugMod::locHeightmapServer);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Biome",           LestoraDebugMod::locBiome);
-        DebugDataParser.handleBuiltinF3("LocationDetails.NoiseRouter",     LestoraDebugMod::locNoiseRouter);
-        DebugDataParser.handleBuiltinF3("LocationDetails.BiomeBuilder",    LestoraDebugMod::locBiomeBuilder);
-        DebugDataParser.handleBuiltinF3("LocationDetails.MobCaps",         LestoraDebugMod::locMobCaps);
-        DebugDataParser.handleBuiltinF3("LocationDetails.Sounds",          LestoraDebugMod::locSounds);
-
-        DebugDataParser.handleBuiltinF3("System.Java",                     LestoraDebugMod::sysJava);
-        DebugDataParser.handleBuiltinF3("System.Memory",                   LestoraDebugMod::sysMemory);
-        DebugDataParser.handleBuiltinF3("System.AllocationRate",           LestoraDebugMod::sysAllocationRate);
-        DebugDataParser.handleBuiltinF3("System.Allocated",                LestoraDebugMod::sysAllocated);
-        DebugDataParser.handleBuiltinF3("System.CPU",                      LestoraDebugMod::sysCPU);
-        DebugDataParser.handleBuiltinF3("System.Display",                  LestoraDebugMod::sysDisplay);
-        DebugDataParser.handleBuiltinF3("System.Renderer",                 LestoraDebugMod::sysRenderer);
-        DebugDataParser.handleBuiltinF3("System.OpenGLVersion",            LestoraDebugMod::sysOpenGLVersion);
-
-        DebugDataParser.handleBuiltinF3("TargetBlock.Coords",              (line, emitter) -> targetCoords(line, "Block", emitter));
-        DebugDataParser.handleBuiltinF3("TargetBlock.ResourceLocation",    LestoraDebugMod::targetResourceLocation);
-        DebugDataParser.handleBuiltinF3("TargetBlock.States",              LestoraDebugMod::targetStates);
-        DebugDataParser.handleBuiltinF3("TargetBlock.Tags",                LestoraDebugMod::targetBlockTags);
-
-        DebugDataParser.handleBuiltinF3("TargetFluid.Coords",              (line, emitter) -> targetCoords(line, "Fluid", emitter));
-        DebugDataParser.handleBuiltinF3("TargetFluid.ResourceLocation",    LestoraDebugMod::targetResourceLocation);
-        DebugDataParser.handleBuiltinF3("TargetFluid.States",              LestoraDebugMod::targetStates);
-        DebugDataParser.handleBuiltinF3("TargetFluid.Tags",                LestoraDebugMod::targetBlockTags);
-
-        DebugDataParser.handleBuiltinF3("TargetEntity.Coords",             (line, emitter) -> targetCoords(line, "Entity", emitter));
-        DebugDataParser.handleBuiltinF3("TargetEntity.ResourceLocation",   LestoraDebugMod::targetResourceLocation);
-        DebugDataParser.handleBuiltinF3("TargetEntity.States",             LestoraDebugMod::targetStates);
-        DebugDataParser.handleBuiltinF3("TargetEntity.Tags",               LestoraDebugMod::targetBlockTags);
+        DebugDataParser.handleBuiltinF3("MinecraftData.VersionInfo",       LestoraDebugMod::mcVersionInfo, LestoraDebugMod::rebuildMcVersionInfo);
+        DebugDataParser.handleBuiltinF3("MinecraftData.Renderer",          LestoraDebugMod::mcRenderer, LestoraDebugMod::rebuildMcRenderer);
+        DebugDataParser.handleBuiltinF3("MinecraftData.Server",            LestoraDebugMod::mcServer, LestoraDebugMod::rebuildMcServer);
+        DebugDataParser.handleBuiltinF3("MinecraftData.Chunks",            LestoraDebugMod::mcChunks, LestoraDebugMod::rebuildMcChunks);
+        DebugDataParser.handleBuiltinF3("MinecraftData.Entities",          LestoraDebugMod::mcEntities, LestoraDebugMod::rebuildMcEntities);
+        DebugDataParser.handleBuiltinF3("MinecraftData.Particles",         LestoraDebugMod::mcParticles, LestoraDebugMod::rebuildMcParticles);
+        DebugDataParser.handleBuiltinF3("MinecraftData.ChunksClient",      LestoraDebugMod::mcChunksClient, LestoraDebugMod::rebuildMcChunksClient);
+        DebugDataParser.handleBuiltinF3("MinecraftData.ChunksServer",      LestoraDebugMod::mcChunksServer, LestoraDebugMod::rebuildMcChunksServer);
+        DebugDataParser.handleBuiltinF3("MinecraftData.Dimension",         LestoraDebugMod::mcDimension, LestoraDebugMod::rebuildMcDimension);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Position",        LestoraDebugMod::locPosition, LestoraDebugMod::rebuildLocPosition);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Block",           LestoraDebugMod::locBlock, LestoraDebugMod::rebuildLocBlock);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Chunk",           LestoraDebugMod::locChunk, LestoraDebugMod::rebuildLocChunk);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Facing",          LestoraDebugMod::locFacing, LestoraDebugMod::rebuildLocFacing);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Light",           LestoraDebugMod::locLight, LestoraDebugMod::rebuildLocLight);
+        DebugDataParser.handleBuiltinF3("LocationDetails.LocalDifficulty", LestoraDebugMod::locLocalDifficulty, LestoraDebugMod::rebuildLocLocalDifficulty);
+        DebugDataParser.handleBuiltinF3("LocationDetails.HeightmapClient", LestoraDebugMod::locHeightmapClient, LestoraDebugMod::rebuildLocHeightmapClient);
+        DebugDataParser.handleBuiltinF3("LocationDetails.HeightmapServer", LestoraDebugMod::locHeightmapServer, LestoraDebugMod::rebuildLocHeightmapServer);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Biome",           LestoraDebugMod::locBiome, LestoraDebugMod::rebuildLocBiome);
+        DebugDataParser.handleBuiltinF3("LocationDetails.NoiseRouter",     LestoraDebugMod::locNoiseRouter, LestoraDebugMod::rebuildLocNoiseRouter);
+        DebugDataParser.handleBuiltinF3("LocationDetails.BiomeBuilder",    LestoraDebugMod::locBiomeBuilder, LestoraDebugMod::rebuildLocBiomeBuilder);
+        DebugDataParser.handleBuiltinF3("LocationDetails.MobCaps",         LestoraDebugMod::locMobCaps, LestoraDebugMod::rebuildLocMobCaps);
+        DebugDataParser.handleBuiltinF3("LocationDetails.Sounds",          LestoraDebugMod::locSounds, LestoraDebugMod::rebuildLocSounds);
+
+        DebugDataParser.handleBuiltinF3("System.Java",                     LestoraDebugMod::sysJava, LestoraDebugMod::rebuildSysJava);
+        DebugDataParser.handleBuiltinF3("System.Memory",                   LestoraDebugMod::sysMemory, LestoraDebugMod::rebuildSysMemory);
+        DebugDataParser.handleBuiltinF3("System.AllocationRate",           LestoraDebugMod::sysAllocationRate, LestoraDebugMod::rebuildSysAllocationRate);
+        DebugDataParser.handleBuiltinF3("System.Allocated",                LestoraDebugMod::sysAllocated, LestoraDebugMod::rebuildSysAllocated);
+        DebugDataParser.handleBuiltinF3("System.CPU",                      LestoraDebugMod::sysCPU, LestoraDebugMod::rebuildSysCPU);
+        DebugDataParser.handleBuiltinF3("System.Display",                  LestoraDebugMod::sysDisplay, LestoraDebugMod::rebuildSysDisplay);
+        DebugDataParser.handleBuiltinF3("System.Renderer",                 LestoraDebugMod::sysRenderer, LestoraDebugMod::rebuildSysRenderer);
+        DebugDataParser.handleBuiltinF3("System.OpenGLVersion",            LestoraDebugMod::sysOpenGLVersion, LestoraDebugMod::rebuildSysOpenGLVersion);
+
+        DebugDataParser.handleBuiltinF3("TargetBlock.Coords",              LestoraDebugMod::targetCoords, data -> rebuildTargetCoords(data, "Block"));
+        DebugDataParser.handleBuiltinF3("TargetBlock.ResourceLocation",    LestoraDebugMod::targetResourceLocation, LestoraDebugMod::rebuildTargetResourceLocation);
+        DebugDataParser.handleBuiltinF3("TargetBlock.States",              LestoraDebugMod::targetStates, LestoraDebugMod::rebuildTargetStates);
+        DebugDataParser.handleBuiltinF3("TargetBlock.Tags",                LestoraDebugMod::targetBlockTags, LestoraDebugMod::rebuildTargetBlockTags);
+
+        DebugDataParser.handleBuiltinF3("TargetFluid.Coords",              LestoraDebugMod::targetCoords, data -> rebuildTargetCoords(data, "Fluid"));
+        DebugDataParser.handleBuiltinF3("TargetFluid.ResourceLocation",    LestoraDebugMod::targetResourceLocation, LestoraDebugMod::rebuildTargetResourceLocation);
+        DebugDataParser.handleBuiltinF3("TargetFluid.States",              LestoraDebugMod::targetStates, LestoraDebugMod::rebuildTargetStates);
+        DebugDataParser.handleBuiltinF3("TargetFluid.Tags",                LestoraDebugMod::targetBlockTags, LestoraDebugMod::rebuildTargetBlockTags);
+
+        DebugDataParser.handleBuiltinF3("TargetEntity.Coords",             LestoraDebugMod::targetCoords, data -> rebuildTargetCoords(data, "Entity"));
+        DebugDataParser.handleBuiltinF3("TargetEntity.ResourceLocation",   LestoraDebugMod::targetResourceLocation, LestoraDebugMod::rebuildTargetResourceLocation);
+        DebugDataParser.handleBuiltinF3("TargetEntity.States",             LestoraDebugMod::targetStates, LestoraDebugMod::rebuildTargetStates);
+        DebugDataParser.handleBuiltinF3("TargetEntity.Tags",               LestoraDebugMod::targetBlockTags, LestoraDebugMod::rebuildTargetBlockTags);
+
+        // lines that can be read straight from client state instead; see /lestora debug provider
+        VanillaProviders.register();
 
         //DebugDataParser.registerCustomRightHandler("MyKey", "TargetFluid.ResourceLocation", data -> Collections.singletonList("System DateTime: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("uuuu-MM-dd' 'HH:mm:ss"))));
     }
 
-    private static Function<Map<String, String>, List<String>> mcVersionInfo(String line, BiConsumer<String, String> emit) {
-        Matcher m = Pattern.compile("^Minecraft\\s+(\\S+)(?:\\s+\\(([^)]+)\\))?").matcher(line);
-        if (m.find()) {
-            String version = m.group(1);
-            emit.accept("VersionNumber", version);
+    private static void mcVersionInfo(String line, BiConsumer<String, String> emit) {
+        // e.g. "Minecraft 1.21.4 (1.21.4/forge)"
+        var s = LineScanner.of(line);
+        if (s.expectToken("Minecraft") && s.hasMore()) {
+            emit.accept("VersionNumber", s.readToken());
 
-            String modName = m.group(2);
-            if (modName != null && !modName.isEmpty()) {
-                emit.accept("ModName", modName);
+            if (s.expect('(') && s.indexOf(')') >= 0) {
+                emit.accept("ModName", s.readUntil(')'));
             }
         }
         else {
-            System.err.println("Regex couldn't match to MinecraftData.VersionInfo line");
+            System.err.println("Couldn't read the MinecraftData.VersionInfo line: " + line);
         }
+    }
 
-        return (data) -> {
-            String ver = data.get("VersionNumber");
-            String mod = data.get("ModName");
+    private static List<String> rebuildMcVersionInfo(Map<String, String> data) {
+        String ver = data.get("VersionNumber");
+        String mod = data.get("ModName");
 
-            if (ver == null && mod == null) {
-                return null;
-            }
+        if (ver == null && mod == null) {
+            return null;
+        }
 
-            StringBuilder sb = new StringBuilder("Minecraft");
-            if (ver != null) {
-                sb.append(" ").append(ver);
-            }
-            if (mod != null) {
-                sb.append(" (").append(mod).append(")");
-            }
-            return Collections.singletonList(sb.toString());
-        };
+        StringBuilder sb = new StringBuilder("Minecraft");
+        if (ver != null) {
+            sb.append(" ").append(ver);
+        }
+        if (mod != null) {
+            sb.append(" (").append(mod).append(")");
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> mcRenderer(String line, BiConsumer<String, String> emit) {
+    private static void mcRenderer(String line, DatumMask want, DatumEmitter emit) {
         // e.g. "60 fps T: 120 vsync fancy fancy-clouds B: 2 GPU: 20%"
-        String[] tok = line.split("\\s+");
-        emit.accept("FPS", tok[0]);
+        var s = LineScanner.of(line);
+        emit.emitInt("FPS", s.readLong(), "fps");
 
-        // Find the T: and B: indices
-        int tIdx = -1, bIdx = -1, gpuIdx = -1;
-        for (int i = 1; i < tok.length; i++) {
-            if ("T:".equals(tok[i])) tIdx = i;
-            else if ("B:".equals(tok[i])) bIdx = i;
-            else if ("GPU:".equals(tok[i])) gpuIdx = i;
-        }
+        if (s.skipPastToken("T:")) {
+            emitIntToken(s, want, emit, "TickTime", "fps");
 
-        if (tIdx >= 0 && tIdx + 1 < tok.length) {
-            emit.accept("TickTime", tok[tIdx + 1]);
+            // SomeCategory: everything between T:<value> and B:<value>
+            int optionsStart = s.position();
+            int bIdx = s.indexOfToken("B:");
+            if (bIdx >= 0 && want.wants("Options")) {
+                emit.emitText("Options", s.text(optionsStart, bIdx));
+            }
         }
 
-        // SomeCategory: everything between T:<value> and B:<value>
-        if (tIdx >= 0 && bIdx > tIdx + 1) {
-            StringBuilder cat = new StringBuilder();
-            for (int i = tIdx + 2; i < bIdx; i++) {
-                if (!cat.isEmpty()) cat.append(" ");
-                cat.append(tok[i]);
-            }
-            emit.accept("Options", cat.toString());
+        if (s.skipPastToken("B:")) {
+            emit.emitInt("BiomeBlend", s.readLong(), null);
         }
 
-        if (bIdx >= 0 && bIdx + 1 < tok.length) {
-            emit.accept("BiomeBlend", tok[bIdx + 1]);
+        if (s.skipPastToken("GPU:")) {
+            emit.emitInt("GPU", s.readLong(), "%");
         }
+    }
 
-        if (gpuIdx >= 0 && gpuIdx + 1 < tok.length) {
-            emit.accept("GPU", tok[gpuIdx + 1].replace("%", ""));
+    // the next token as a whole number when it is one (e.g. "120"), otherwise as text (e.g. "inf" or "??")
+    private static void emitIntToken(LineScanner s, DatumMask want, DatumEmitter emit, String datumKey, String unit) {
+        if (!want.wants(datumKey)) {
+            s.skipToken();
+        } else if (s.atIntToken()) {
+            emit.emitInt(datumKey, s.readLong(), unit);
+        } else {
+            emit.emitText(datumKey, s.readToken());
         }
+    }
 
-        return (data) -> {
-            String fps    = data.get("FPS");
-            String tick   = data.get("TickTime");
-            String options  = data.get("Options");
-            String blend  = data.get("BiomeBlend");
-            String gpu    = data.get("GPU");
+    private static List<String> rebuildMcRenderer(Map<String, String> data) {
+        String fps    = data.get("FPS");
+        String tick   = data.get("TickTime");
+        String options  = data.get("Options");
+        String blend  = data.get("BiomeBlend");
+        String gpu    = data.get("GPU");
 
-            if (fps == null && tick == null
-                    && !StringUtils.isBlank(options)
-                    && blend == null && gpu == null) {
-                return null;
-            }
+        if (fps == null && tick == null
+                && !StringUtils.isBlank(options)
+                && blend == null && gpu == null) {
+            return null;
+        }
 
-            List<String> parts = new ArrayList<>();
-            if (fps != null)    parts.add(fps + " fps");
-            if (tick != null)   parts.add("T: " + tick);
-            if (!StringUtils.isBlank(options)) parts.add(options);
-            if (blend != null) parts.add("B: " + blend);
-            if (gpu != null)   parts.add("GPU: " + gpu + "%");
+        List<String> parts = new ArrayList<>();
+        if (fps != null)    parts.add(fps + " fps");
+        if (tick != null)   parts.add("T: " + tick);
+        if (!StringUtils.isBlank(options)) parts.add(options);
+        if (blend != null) parts.add("B: " + blend);
+        if (gpu != null)   parts.add("GPU: " + gpu + "%");
 
-            return Collections.singletonList(String.join(" ", parts));
-        };
+        return Collections.singletonList(String.join(" ", parts));
     }
 
-    private static Function<Map<String, String>, List<String>> mcServer(String line, BiConsumer<String, String> emit) {
+    private static void mcServer(String line, DatumMask want, DatumEmitter emit) {
         // "Integrated server @ 3.1/50.0 ms, 22 tx, 1053 rx"
-        String[] at = line.split("@");
-        emit.accept("Brand", at[0].replace("Integrated server","").trim());
-        String[] lineParts = at[1].split(",");
-        String timing = lineParts[0].replace("ms","").trim();
-        String[] times = timing.split("/");
-        emit.accept("TickTimeMs", times[0]);
-        emit.accept("TicksPerSecond", times[1]);
-        emit.accept("PacketsSent", lineParts[1].trim().split(" ")[0]);
-        emit.accept("PacketsReceived", lineParts[2].trim().split(" ")[0]);
-
-        return (data) -> {
-            String brandKey = data.get("Brand");
-            String defaultLabel = "Integrated server";
-            String label = (brandKey != null && !brandKey.isBlank()) ? brandKey : defaultLabel;
-
-            String tms  = data.get("TickTimeMs");
-            String tps  = data.get("TicksPerSecond");
-            String sent = data.get("PacketsSent");
-            String recv = data.get("PacketsReceived");
+        var s = LineScanner.of(line);
+        s.expect("Integrated server");
+        if (want.wants("Brand")) {
+            emit.emitText("Brand", s.readUntil('@'));
+        } else {
+            s.skipUntil('@');
+        }
+        emit.emitDouble("TickTimeMs", s.readDouble(), s.lastFractionDigits(), "ms");
+        s.expect('/');
+        emit.emitDouble("TicksPerSecond", s.readDouble(), s.lastFractionDigits(), "ms");
+        if (s.skipPast(',')) emit.emitInt("PacketsSent", s.readLong(), "packets");
+        if (s.skipPast(',')) emit.emitInt("PacketsReceived", s.readLong(), "packets");
+    }
 
-            List<String> parts = new ArrayList<>();
-            if (tms != null && tps != null) parts.add(tms + "/" + tps + " ms");
-            if (sent != null)               parts.add(sent + " tx");
-            if (recv != null)               parts.add(recv + " rx");
+    private static List<String> rebuildMcServer(Map<String, String> data) {
+        String brandKey = data.get("Brand");
+        String defaultLabel = "Integrated server";
+        String label = (brandKey != null && !brandKey.isBlank()) ? brandKey : defaultLabel;
 
-            // skip entire line if neither a custom brand nor any parts exist
-            if ((brandKey == null || brandKey.isBlank()) && parts.isEmpty()) {
-                return null;
-            }
+        String tms  = data.get("TickTimeMs");
+        String tps  = data.get("TicksPerSecond");
+        String sent = data.get("PacketsSent");
+        String recv = data.get("PacketsReceived");
 
-            // build the output
-            StringBuilder sb = new StringBuilder(label);
-            if (!parts.isEmpty()) {
-                sb.append(" @ ").append(String.join(", ", parts));
-            }
-            return Collections.singletonList(sb.toString());
-        };
+        List<String> parts = new ArrayList<>();
+        if (tms != null && tps != null) parts.add(tms + "/" + tps + " ms");
+        if (sent != null)               parts.add(sent + " tx");
+        if (recv != null)               parts.add(recv + " rx");
+
+        // skip entire line if neither a custom brand nor any parts exist
+        if ((brandKey == null || brandKey.isBlank()) && parts.isEmpty()) {
+            return null;
+        }
+
+        // build the output
+        StringBuilder sb = new StringBuilder(label);
+        if (!parts.isEmpty()) {
+            sb.append(" @ ").append(String.join(", ", parts));
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> mcChunks(String line, BiConsumer<String, String> emit) {
+    private static void mcChunks(String line, DatumMask want, DatumEmitter emit) {
         // "C: 305/15000 (s) D: 12, pC: 000, pU: 00, aB: 16"
-        String[] p = line.split("\\s+");
-        String[] ct = p[1].split("/");
-        emit.accept("SectionsRendered", ct[0]);
-        emit.accept("SectionsTotal",    ct[1]);
-        for (int j = 2; j < p.length; j++) {
-            switch(p[j]) {
-                case "D:"  -> emit.accept("RenderDistance",   p[j+1].replace(",",""));
-                case "pC:" -> emit.accept("PendingBatch",     p[j+1].replace(",",""));
-                case "pU:" -> emit.accept("PendingUploads",   p[j+1].replace(",",""));
-                case "aB:" -> emit.accept("AvailableBuffers", p[j+1]);
-            }
+        var s = LineScanner.of(line);
+        s.expect("C:");
+        emit.emitInt("SectionsRendered", s.readLong(), "sections");
+        s.expect('/');
+        emit.emitInt("SectionsTotal",    s.readLong(), "sections");
+        while (s.nextToken()) {
+            if      (s.tokenIs("D:"))  emit.emitInt("RenderDistance",   s.readLong(), "chunks");
+            else if (s.tokenIs("pC:")) emitPaddedInt(s, emit, "PendingBatch");
+            else if (s.tokenIs("pU:")) emitPaddedInt(s, emit, "PendingUploads");
+            else if (s.tokenIs("aB:")) emit.emitInt("AvailableBuffers", s.readLong(), "buffers");
         }
+    }
 
-        return (data) -> {
-            String rs = data.get("SectionsRendered");
-            String ts = data.get("SectionsTotal");
-            String rd = data.get("RenderDistance");
-            String pc = data.get("PendingBatch");
-            String pu = data.get("PendingUploads");
-            String ab = data.get("AvailableBuffers");
+    // vanilla zero-pads these counts (e.g. "pC: 000"), so keep the width they were written with
+    private static void emitPaddedInt(LineScanner s, DatumEmitter emit, String datumKey) {
+        long value = s.readLong();
+        emit.emitInt(datumKey, value, s.lastIntegerDigits(), "sections");
+    }
 
-            List<String> parts = new ArrayList<>();
-            // render count pair
-            if (rs != null && ts != null) {
-                parts.add("C: " + rs + "/" + ts + " (s)");
-            }
-            // optional details
-            if (rd != null) parts.add("D: " + rd);
-            if (pc != null) parts.add("pC: " + pc);
-            if (pu != null) parts.add("pU: " + pu);
-            if (ab != null) parts.add("aB: " + ab);
-
-            // only output if there's something to show
-            if (parts.isEmpty()) {
-                return null;
-            }
+    private static List<String> rebuildMcChunks(Map<String, String> data) {
+        String rs = data.get("SectionsRendered");
+        String ts = data.get("SectionsTotal");
+        String rd = data.get("RenderDistance");
+        String pc = data.get("PendingBatch");
+        String pu = data.get("PendingUploads");
+        String ab = data.get("AvailableBuffers");
+
+        List<String> parts = new ArrayList<>();
+        // render count pair
+        if (rs != null && ts != null) {
+            parts.add("C: " + rs + "/" + ts + " (s)");
+        }
+        // optional details
+        if (rd != null) parts.add("D: " + rd);
+        if (pc != null) parts.add("pC: " + pc);
+        if (pu != null) parts.add("pU: " + pu);
+        if (ab != null) parts.add("aB: " + ab);
+
+        // only output if there's something to show
+        if (parts.isEmpty()) {
+            return null;
+        }
 
-            return Collections.singletonList(String.join(", ", parts));
-        };
+        return Collections.singletonList(String.join(", ", parts));
     }
 
-    private static Function<Map<String, String>, List<String>> mcEntities(String line, BiConsumer<String, String> emit) {
+    private static void mcEntities(String line, DatumMask want, DatumEmitter emit) {
         // "E: 3/127, SD: 12"
-        String entityPart = line.substring(0, line.indexOf(',')).trim();       // "E: 3/127"
-        String[] counts     = entityPart.substring(entityPart.indexOf(' ')+1).split("/");
-        emit.accept("Rendered", counts[0]);
-        emit.accept("Total",    counts[1]);
-        int sdIdx = line.indexOf("SD:");
-        emit.accept("SimulationDistance", line.substring(sdIdx+3).trim());
-
-        return (data) -> {
-            String rend = data.get("Rendered");
-            String tot  = data.get("Total");
-            String sd   = data.get("SimulationDistance");
-
-            // skip only if nothing is present
-            if (rend == null && tot == null && sd == null) {
-                return null;
-            }
+        var s = LineScanner.of(line);
+        s.expect("E:");
+        emit.emitInt("Rendered", s.readLong(), "entities");
+        s.expect('/');
+        emit.emitInt("Total",    s.readLong(), "entities");
+        if (s.skipPast("SD:")) {
+            emit.emitInt("SimulationDistance", s.readLong(), "chunks");
+        }
+    }
 
-            StringBuilder sb = new StringBuilder("E:");
-            // render/total
-            if (rend != null || tot != null) {
-                String r = rend != null ? rend : "?";
-                String t = tot  != null ? tot  : "?";
-                sb.append(" ").append(r).append("/").append(t);
-            }
-            // simulation distance
-            if (sd != null) {
-                sb.append(", SD: ").append(sd);
-            }
+    private static List<String> rebuildMcEntities(Map<String, String> data) {
+        String rend = data.get("Rendered");
+        String tot  = data.get("Total");
+        String sd   = data.get("SimulationDistance");
+
+        // skip only if nothing is present
+        if (rend == null && tot == null && sd == null) {
+            return null;
+        }
 
-            return Collections.singletonList(sb.toString());
-        };
+        StringBuilder sb = new StringBuilder("E:");
+        // render/total
+        if (rend != null || tot != null) {
+            String r = rend != null ? rend : "?";
+            String t = tot  != null ? tot  : "?";
+            sb.append(" ").append(r).append("/").append(t);
+        }
+        // simulation distance
+        if (sd != null) {
+            sb.append(", SD: ").append(sd);
+        }
+
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> mcParticles(String line, BiConsumer<String, String> emit) {
+    private static void mcParticles(String line, DatumMask want, DatumEmitter emit) {
         // "P: 1270. T: 127"
-        String[] parts = line.split("\\s+");
-        emit.accept("Count",     parts[1].replace(".",""));
-        emit.accept("TickValue", parts[3]);
+        var s = LineScanner.of(line);
+        s.expect("P:");
+        emit.emitInt("Count", s.readLong(), "particles");
+        if (s.skipPastToken("T:")) {
+            emitIntToken(s, want, emit, "TickValue", null);
+        }
+    }
 
-        return (data) -> {
-            String cnt = data.get("Count");
-            String tv  = data.get("TickValue");
+    private static List<String> rebuildMcParticles(Map<String, String> data) {
+        String cnt = data.get("Count");
+        String tv  = data.get("TickValue");
 
-            // skip if neither count nor tick-value is present
-            if (cnt == null && tv == null) {
-                return null;
-            }
+        // skip if neither count nor tick-value is present
+        if (cnt == null && tv == null) {
+            return null;
+        }
 
-            StringBuilder sb = new StringBuilder("P:");
+        StringBuilder sb = new StringBuilder("P:");
+        if (cnt != null) {
+            sb.append(" ").append(cnt);
+        }
+        if (tv != null) {
+            // if we already added count, prefix with “. ”; otherwise just a space
             if (cnt != null) {
-                sb.append(" ").append(cnt);
-            }
-            if (tv != null) {
-                // if we already added count, prefix with “. ”; otherwise just a space
-                if (cnt != null) {
-                    sb.append(". T: ").append(tv);
-                } else {
-                    sb.append(" T: ").append(tv);
-                }
+                sb.append(". T: ").append(tv);
+            } else {
+                sb.append(" T: ").append(tv);
             }
-            return Collections.singletonList(sb.toString());
-        };
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> mcChunksClient(String line, BiConsumer<String, String> emit) {
+    private static void mcChunksClient(String line, BiConsumer<String, String> emit) {
         // "Chunks[C] W: 961, 637 E: 127,76,637"
-        String wPart = line.substring(line.indexOf("W:")+2, line.indexOf("E:")).trim();
-        String ePart = line.substring(line.indexOf("E:")+2).trim();
-        String[] wc = wPart.split(",");
-        String[] ec = ePart.split(",");
-        emit.accept("Cached",        wc[0].trim());
-        emit.accept("Loaded",        wc[1].trim());
-        if (ec.length >= 3) {
-            emit.accept("Entities",       ec[0].trim());
-            emit.accept("EntitySections", ec[1].trim());
-            emit.accept("Ticking",        ec[2].trim());
-        }
-
-        return (data) -> {
-            String c  = data.get("Cached");
-            String l  = data.get("Loaded");
-            String e1 = data.get("Entities");
-            String e2 = data.get("EntitySections");
-            String t  = data.get("Ticking");
-
-            // skip if absolutely nothing is present
-            if (c == null && l == null && e1 == null && e2 == null && t == null) {
-                return null;
-            }
+        var s = LineScanner.of(line);
+        s.skipPast("W:");
+        emit.accept("Cached",        s.readUntil(','));
+        emit.accept("Loaded",        s.readUntil("E:"));
+        if (s.countAhead(',') >= 2) {
+            emit.accept("Entities",       s.readUntil(','));
+            emit.accept("EntitySections", s.readUntil(','));
+            emit.accept("Ticking",        s.readUntil(','));
+        }
+    }
 
-            List<String> parts = new ArrayList<>();
-            if (c != null) parts.add("W: " + c);
-            if (l != null) parts.add(l); // "L: " + l, if we need extra description
-
-            // combine entities/sections/ticking into one E: token if any present
-            List<String> entParts = new ArrayList<>();
-            if (e1 != null) entParts.add(e1);
-            if (e2 != null) entParts.add(e2);
-            if (t  != null) entParts.add(t);
-            if (!entParts.isEmpty()) {
-                parts.add("E: " + String.join(",", entParts));
-            }
+    private static List<String> rebuildMcChunksClient(Map<String, String> data) {
+        String c  = data.get("Cached");
+        String l  = data.get("Loaded");
+        String e1 = data.get("Entities");
+        String e2 = data.get("EntitySections");
+        String t  = data.get("Ticking");
+
+        // skip if absolutely nothing is present
+        if (c == null && l == null && e1 == null && e2 == null && t == null) {
+            return null;
+        }
 
-            return Collections.singletonList("Chunks[C] " + String.join(", ", parts));
-        };
+        List<String> parts = new ArrayList<>();
+        if (c != null) parts.add("W: " + c);
+        if (l != null) parts.add(l); // "L: " + l, if we need extra description
+
+        // combine entities/sections/ticking into one E: token if any present
+        List<String> entParts = new ArrayList<>();
+        if (e1 != null) entParts.add(e1);
+        if (e2 != null) entParts.add(e2);
+        if (t  != null) entParts.add(t);
+        if (!entParts.isEmpty()) {
+            parts.add("E: " + String.join(",", entParts));
+        }
+
+        return Collections.singletonList("Chunks[C] " + String.join(", ", parts));
     }
 
-    private static Function<Map<String, String>, List<String>> mcChunksServer(String line, BiConsumer<String, String> emit) {
+    private static void mcChunksServer(String line, BiConsumer<String, String> emit) {
         // "Chunks[S] W: 3338 E: 173,103,890,890,0,0"
-        String wVal = line.substring(line.indexOf("W:")+2, line.indexOf("E:")).trim();
-        emit.accept("World", wVal);
-        String[] es = line.substring(line.indexOf("E:")+2).split(",");
-        if (es.length >= 6) {
-            emit.accept("Entities", es[0].trim());
-            emit.accept("Visible",  es[1].trim());
-            emit.accept("Sections", es[2].trim());
-            emit.accept("Loaded",   es[3].trim());
-            emit.accept("Ticking",  es[4].trim());
-            emit.accept("ToLoad",   es[5].trim());
-            if (es.length > 6) emit.accept("ToUnload", es[6].trim());
-        }
-
-        return (data) -> {
-            String w  = data.get("World");
-            String e  = data.get("Entities");
-            String vis= data.get("Visible");
-            String sec= data.get("Sections");
-            String ld = data.get("Loaded");
-            String tk = data.get("Ticking");
-            String tl = data.get("ToLoad");
-            String tu = data.get("ToUnload");
-
-            // only output if at least one value is present
-            if (w != null || e != null || vis != null || sec != null ||
-                    ld != null || tk != null || tl != null || tu != null) {
-
-                var dubya = "";
-                var eee = "";
-                var hasE = false;
-                List<String> parts = new ArrayList<>();
-                if (e   != null) {parts.add(e); hasE = true;}
-                if (vis != null) {parts.add(vis); hasE = true;}
-                if (sec != null) {parts.add(sec); hasE = true;}
-                if (ld  != null) {parts.add(ld); hasE = true;}
-                if (tk  != null) {parts.add(tk); hasE = true;}
-                if (tl  != null) {parts.add(tl); hasE = true;}
-                if (tu  != null) {parts.add(tu); hasE = true;}
-                if (hasE) eee = " E: " + String.join(",", parts);
-
-                return Collections.singletonList("Chunks[S] " + dubya + eee);
-            }
+        var s = LineScanner.of(line);
+        s.skipPast("W:");
+        emit.accept("World", s.readUntil("E:"));
+        int fields = s.countAhead(',') + 1;
+        if (fields >= 6) {
+            emit.accept("Entities", s.readUntil(','));
+            emit.accept("Visible",  s.readUntil(','));
+            emit.accept("Sections", s.readUntil(','));
+            emit.accept("Loaded",   s.readUntil(','));
+            emit.accept("Ticking",  s.readUntil(','));
+            emit.accept("ToLoad",   s.readUntil(','));
+            if (fields > 6) emit.accept("ToUnload", s.readUntil(','));
+        }
+    }
 
-            return null;
-        };
+    private static List<String> rebuildMcChunksServer(Map<String, String> data) {
+        String w  = data.get("World");
+        String e  = data.get("Entities");
+        String vis= data.get("Visible");
+        String sec= data.get("Sections");
+        String ld = data.get("Loaded");
+        String tk = data.get("Ticking");
+        String tl = data.get("ToLoad");
+        String tu = data.get("ToUnload");
+
+        // only output if at least one value is present
+        if (w != null || e != null || vis != null || sec != null ||
+                ld != null || tk != null || tl != null || tu != null) {
+
+            var dubya = "";
+            var eee = "";
+            var hasE = false;
+            List<String> parts = new ArrayList<>();
+            if (e   != null) {parts.add(e); hasE = true;}
+            if (vis != null) {parts.add(vis); hasE = true;}
+            if (sec != null) {parts.add(sec); hasE = true;}
+            if (ld  != null) {parts.add(ld); hasE = true;}
+            if (tk  != null) {parts.add(tk); hasE = true;}
+            if (tl  != null) {parts.add(tl); hasE = true;}
+            if (tu  != null) {parts.add(tu); hasE = true;}
+            if (hasE) eee = " E: " + String.join(",", parts);
+
+            return Collections.singletonList("Chunks[S] " + dubya + eee);
+        }
+
+        return null;
     }
 
-    private static Function<Map<String, String>, List<String>> mcDimension(String line, BiConsumer<String, String> emit) {
+    private static void mcDimension(String line, BiConsumer<String, String> emit) {
         // "minecraft:overworld FC: 0"
-        String[] parts = line.split("\\s+");
-        emit.accept("ID", parts[0]);
-        emit.accept("ForceLoadedChunks", parts[2]);
+        var s = LineScanner.of(line);
+        emit.accept("ID", s.readToken());
+        s.skipToken();
+        emit.accept("ForceLoadedChunks", s.readToken());
+    }
 
-        return (data) -> {
-            String id = data.get("ID");
-            String fc = data.get("ForceLoadedChunks");
+    private static List<String> rebuildMcDimension(Map<String, String> data) {
+        String id = data.get("ID");
+        String fc = data.get("ForceLoadedChunks");
 
-            // skip if neither ID nor FC is present
-            if (id == null && fc == null) {
-                return null;
-            }
+        // skip if neither ID nor FC is present
+        if (id == null && fc == null) {
+            return null;
+        }
 
-            StringBuilder sb = new StringBuilder();
-            if (id != null) {
-                sb.append(id);
-            }
-            if (fc != null) {
-                if (sb.length() > 0) {
-                    sb.append(" ");
-                }
-                sb.append("FC: ").append(fc);
+        StringBuilder sb = new StringBuilder();
+        if (id != null) {
+            sb.append(id);
+        }
+        if (fc != null) {
+            if (sb.length() > 0) {
+                sb.append(" ");
             }
+            sb.append("FC: ").append(fc);
+        }
 
-            return Collections.singletonList(sb.toString());
-        };
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> locPosition(String line, BiConsumer<String, String> emit) {
+    private static void locPosition(String line, BiConsumer<String, String> emit) {
         // "XYZ: -123.000 / 64.000 / -123.000"
-        String[] xyz = line.substring(5).split("/");
-        emit.accept("X", xyz[0].trim());
-        emit.accept("Y", xyz[1].trim());
-        emit.accept("Z", xyz[2].trim());
-
-        return (data) -> {
-            String x = data.get("X");
-            String y = data.get("Y");
-            String z = data.get("Z");
-
-            // skip if absolutely nothing is present
-            if (x == null && y == null && z == null) {
-                return null;
-            }
+        var s = LineScanner.of(line);
+        s.expect("XYZ:");
+        emit.accept("X", s.readUntil('/'));
+        emit.accept("Y", s.readUntil('/'));
+        emit.accept("Z", s.readUntil('/'));
+    }
+
+    private static List<String> rebuildLocPosition(Map<String, String> data) {
+        String x = data.get("X");
+        String y = data.get("Y");
+        String z = data.get("Z");
 
-            // build each coordinate or "?" if missing
-            String xx = x != null ? x : "?";
-            String yy = y != null ? y : "?";
-            String zz = z != null ? z : "?";
+        // skip if absolutely nothing is present
+        if (x == null && y == null && z == null) {
+            return null;
+        }
 
-            return Collections.singletonList("XYZ: " + xx + " / " + yy + " / " + zz);
-        };
+        // build each coordinate or "?" if missing
+        String xx = x != null ? x : "?";
+        String yy = y != null ? y : "?";
+        String zz = z != null ? z : "?";
+
+        return Collections.singletonList("XYZ: " + xx + " / " + yy + " / " + zz);
     }
 
-    private static Function<Map<String, String>, List<String>> locBlock(String line, BiConsumer<String, String> emit) {
+    private static void locBlock(String line, BiConsumer<String, String> emit) {
         // "Block: -124 64 -124 [1 2 3]"
-        String world = line.substring(7, line.indexOf("[")).trim();
-        String rel   = line.substring(line.indexOf("[")+1, line.indexOf("]")).trim();
-        String[] w   = world.split(" ");
-        String[] r   = rel.split(" ");
-        emit.accept("WorldX", w[0]);
-        emit.accept("WorldY", w[1]);
-        emit.accept("WorldZ", w[2]);
-        emit.accept("RelativeX", r[0]);
-        emit.accept("RelativeY", r[1]);
-        emit.accept("RelativeZ", r[2]);
-
-        return (data) -> {
-            String wx = data.get("WorldX");
-            String wy = data.get("WorldY");
-            String wz = data.get("WorldZ");
-            String rx = data.get("RelativeX");
-            String ry = data.get("RelativeY");
-            String rz = data.get("RelativeZ");
-
-            // skip if absolutely nothing is present
-            if (wx == null && wy == null && wz == null
-                    && rx == null && ry == null && rz == null) {
-                return null;
-            }
+        var s = LineScanner.of(line);
+        s.expect("Block:");
+        emit.accept("WorldX", s.readToken());
+        emit.accept("WorldY", s.readToken());
+        emit.accept("WorldZ", s.readToken());
+        if (s.skipPast('[')) {
+            emit.accept("RelativeX", s.readToken());
+            emit.accept("RelativeY", s.readToken());
+            emit.accept("RelativeZ", s.readToken("]"));
+        }
+    }
 
-            StringBuilder sb = new StringBuilder("Block");
-            // world coords
-            if (wx != null || wy != null || wz != null) {
-                sb.append(": ");
-                sb.append(wx != null ? wx : "?").append(" ");
-                sb.append(wy != null ? wy : "?").append(" ");
-                sb.append(wz != null ? wz : "?");
-            }
-            // relative coords
-            if (rx != null || ry != null || rz != null) {
-                sb.append(" [");
-                sb.append(rx != null ? rx : "?").append(" ");
-                sb.append(ry != null ? ry : "?").append(" ");
-                sb.append(rz != null ? rz : "?");
-                sb.append("]");
-            }
-            return Collections.singletonList(sb.toString());
-        };
+    private static List<String> rebuildLocBlock(Map<String, String> data) {
+        String wx = data.get("WorldX");
+        String wy = data.get("WorldY");
+        String wz = data.get("WorldZ");
+        String rx = data.get("RelativeX");
+        String ry = data.get("RelativeY");
+        String rz = data.get("RelativeZ");
+
+        // skip if absolutely nothing is present
+        if (wx == null && wy == null && wz == null
+                && rx == null && ry == null && rz == null) {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder("Block");
+        // world coords
+        if (wx != null || wy != null || wz != null) {
+            sb.append(": ");
+            sb.append(wx != null ? wx : "?").append(" ");
+            sb.append(wy != null ? wy : "?").append(" ");
+            sb.append(wz != null ? wz : "?");
+        }
+        // relative coords
+        if (rx != null || ry != null || rz != null) {
+            sb.append(" [");
+            sb.append(rx != null ? rx : "?").append(" ");
+            sb.append(ry != null ? ry : "?").append(" ");
+            sb.append(rz != null ? rz : "?");
+            sb.append("]");
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> locChunk(String line, BiConsumer<String, String> emit) {
+    private static void locChunk(String line, BiConsumer<String, String> emit) {
         // "Chunk: -9 4 -9 [14 20 in r.-1.-1.mca]"
-        String coord = line.substring(7, line.indexOf("[")).trim();
-        String detail= line.substring(line.indexOf("[")+1, line.indexOf("]")).trim();
-        String[] c    = coord.split(" ");
-        emit.accept("WorldX", c[0]);
-        emit.accept("WorldY", c[1]);
-        emit.accept("WorldZ", c[2]);
-        String[] dt   = detail.split(" in ");
-        String[] rc   = dt[0].split(" ");
-        emit.accept("RelativeX", rc[0]);
-        emit.accept("RelativeZ", rc[1]);
-        if (dt.length>1) emit.accept("RegionFile", dt[1]);
-
-        return (data) -> {
-            String wx = data.get("WorldX");
-            String wy = data.get("WorldY");
-            String wz = data.get("WorldZ");
-            String rx = data.get("RelativeX");
-            String rz = data.get("RelativeZ");
-            String rf = data.get("RegionFile");
-
-            // skip only if absolutely nothing is present
-            if (wx == null && wy == null && wz == null
-                    && rx == null && rz == null && rf == null) {
-                return null;
-            }
+        var s = LineScanner.of(line);
+        s.expect("Chunk:");
+        emit.accept("WorldX", s.readToken());
+        emit.accept("WorldY", s.readToken());
+        emit.accept("WorldZ", s.readToken());
+        if (s.skipPast('[')) {
+            emit.accept("RelativeX", s.readToken());
+            emit.accept("RelativeZ", s.readToken("]"));
+            if (s.expectToken("in")) emit.accept("RegionFile", s.readUntil(']'));
+        }
+    }
+
+    private static List<String> rebuildLocChunk(Map<String, String> data) {
+        String wx = data.get("WorldX");
+        String wy = data.get("WorldY");
+        String wz = data.get("WorldZ");
+        String rx = data.get("RelativeX");
+        String rz = data.get("RelativeZ");
+        String rf = data.get("RegionFile");
+
+        // skip only if absolutely nothing is present
+        if (wx == null && wy == null && wz == null
+                && rx == null && rz == null && rf == null) {
+            return null;
+        }
 
-            StringBuilder sb = new StringBuilder("Chunk");
+        StringBuilder sb = new StringBuilder("Chunk");
 
-            // world coords
-            if (wx != null && wy != null && wz != null) {
-                sb.append(": ").append(wx)
-                        .append(" ").append(wy)
-                        .append(" ").append(wz);
-            }
+        // world coords
+        if (wx != null && wy != null && wz != null) {
+            sb.append(": ").append(wx)
+                    .append(" ").append(wy)
+                    .append(" ").append(wz);
+        }
 
-            // relative/region detail
-            List<String> details = new ArrayList<>();
-            if (rx != null) details.add(rx);
-            if (rz != null) details.add(rz);
+        // relative/region detail
+        List<String> details = new ArrayList<>();
+        if (rx != null) details.add(rx);
+        if (rz != null) details.add(rz);
 
-            if (!details.isEmpty() || rf != null) {
-                sb.append(" [");
-                if (!details.isEmpty()) {
-                    sb.append(String.join(" ", details));
-                }
-                if (rf != null) {
-                    if (!details.isEmpty()) sb.append(" ");
-                    sb.append("in ").append(rf);
-                }
-                sb.append("]");
+        if (!details.isEmpty() || rf != null) {
+            sb.append(" [");
+            if (!details.isEmpty()) {
+                sb.append(String.join(" ", details));
             }
+            if (rf != null) {
+                if (!details.isEmpty()) sb.append(" ");
+                sb.append("in ").append(rf);
+            }
+            sb.append("]");
+        }
 
-            return Collections.singletonList(sb.toString());
-        };
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> locFacing(String line, BiConsumer<String, String> emit) {
+    private static void locFacing(String line, BiConsumer<String, String> emit) {
         // "Facing: south (Towards positive Z) (1.5 / 66.8)"
-        String[] seg = line.split("\\(");
-        emit.accept("Compass", seg[0].split(":")[1].trim());
-        emit.accept("Toward", seg[1].replace(")","").replace("Towards","").trim());
-        emit.accept("HeadYaw", seg[2].replace(")","").trim());
-
-        return (data) -> {
-            String c = data.get("Compass");
-            String t = data.get("Toward");
-            String h = data.get("HeadYaw");
-            // skip entirely if nothing is present
-            if (c == null && t == null && h == null) {
-                return null;
-            }
-            StringBuilder sb = new StringBuilder("Facing:");
-            // add compass if we have it
-            if (c != null) {
-                sb.append(" ").append(c);
-            }
-            // add toward if we have it
-            if (t != null) {
-                sb.append(" (Towards ").append(t).append(")");
-            }
-            // add head yaw if we have it
-            if (h != null) {
-                sb.append(" (").append(h).append(")");
-            }
-            return Collections.singletonList(sb.toString());
-        };
+        var s = LineScanner.of(line);
+        s.expect("Facing:");
+        emit.accept("Compass", s.readUntil('('));
+        s.expect("Towards");
+        emit.accept("Toward", s.readUntil(')'));
+        if (s.skipPast('(')) {
+            emit.accept("HeadYaw", s.readUntil(')'));
+        }
     }
 
-    private static Function<Map<String, String>, List<String>> locLight(String line, BiConsumer<String, String> emit) {
-        if (line.contains("Waiting for chunk")) { return (x) -> Collections.singletonList(line); }
+    private static List<String> rebuildLocFacing(Map<String, String> data) {
+        String c = data.get("Compass");
+        String t = data.get("Toward");
+        String h = data.get("HeadYaw");
+        // skip entirely if nothing is present
+        if (c == null && t == null && h == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("Facing:");
+        // add compass if we have it
+        if (c != null) {
+            sb.append(" ").append(c);
+        }
+        // add toward if we have it
+        if (t != null) {
+            sb.append(" (Towards ").append(t).append(")");
+        }
+        // add head yaw if we have it
+        if (h != null) {
+            sb.append(" (").append(h).append(")");
+        }
+        return Collections.singletonList(sb.toString());
+    }
+
+    private static void locLight(String line, DatumMask want, DatumEmitter emit) {
+        if (line.contains("Waiting for chunk")) {
+            emit.emitText("Waiting", line);
+            return;
+        }
         // "Client Light: 15 (15 sky, 9 block)"
-        String totx = line.substring(13,line.indexOf("(")).trim();
-        emit.accept("Total", totx);
-        String sub = line.substring(line.indexOf("(")+1, line.indexOf(")"));
-        String[] sp = sub.split(",");
-        emit.accept("Sky",   sp[0].replace("sky","").trim());
-        emit.accept("Block", sp[1].replace("block","").trim());
-
-        return (data) -> {
-            String tot = data.get("Total");
-            String sky = data.get("Sky");
-            String blk = data.get("Block");
-
-            // only skip if *all* three are missing
-            if (tot == null && sky == null && blk == null) {
-                return null; // nothing to print
-            }
+        var s = LineScanner.of(line);
+        s.expect("Client Light:");
+        emit.emitInt("Total", s.readLong(), null);
+        s.expect('(');
+        emit.emitInt("Sky",   s.readLong(), null);
+        if (s.skipPast(',')) {
+            emit.emitInt("Block", s.readLong(), null);
+        }
+    }
 
-            StringBuilder sb = new StringBuilder("Client Light");
-            // if we have a total value, prefix it
-            if (tot != null) {
-                sb.append(": ").append(tot);
-            }
-            // if we have sky or block, always parenthesize them
-            if (sky != null || blk != null) {
-                // if no total, need to add the colon before parentheses
-                if (tot == null) {
-                    sb.append(": ");
-                }
-                sb.append("(");
-                List<String> parts = new ArrayList<>();
-                if (sky != null) parts.add(sky + " sky");
-                if (blk != null) parts.add(blk + " block");
-                sb.append(String.join(", ", parts));
-                sb.append(")");
+    private static List<String> rebuildLocLight(Map<String, String> data) {
+        String waiting = data.get("Waiting");
+        if (waiting != null) return Collections.singletonList(waiting);
+
+        String tot = data.get("Total");
+        String sky = data.get("Sky");
+        String blk = data.get("Block");
+
+        // only skip if *all* three are missing
+        if (tot == null && sky == null && blk == null) {
+            return null; // nothing to print
+        }
+
+        StringBuilder sb = new StringBuilder("Client Light");
+        // if we have a total value, prefix it
+        if (tot != null) {
+            sb.append(": ").append(tot);
+        }
+        // if we have sky or block, always parenthesize them
+        if (sky != null || blk != null) {
+            // if no total, need to add the colon before parentheses
+            if (tot == null) {
+                sb.append(": ");
             }
-            return Collections.singletonList(sb.toString());
-        };
+            sb.append("(");
+            List<String> parts = new ArrayList<>();
+            if (sky != null) parts.add(sky + " sky");
+            if (blk != null) parts.add(blk + " block");
+            sb.append(String.join(", ", parts));
+            sb.append(")");
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> locLocalDifficulty(String line, BiConsumer<String, String> emit) {
-        if (line.contains("Waiting for chunk")) { return (x) -> Collections.singletonList(line); }
+    private static void locLocalDifficulty(String line, BiConsumer<String, String> emit) {
+        if (line.contains("Waiting for chunk")) {
+            emit.accept("Waiting", line);
+            return;
+        }
 
         // drop the prefix
-        String rest = line.substring("Local Difficulty:".length()).trim();
+        var s = LineScanner.of(line);
+        s.expect("Local Difficulty:");
         // handle the "??" case early
-        if (rest.equals("??")) {
+        if (s.restEquals("??")) {
             emit.accept("Numerator", "??");
         } else {
             // rest should look like "0.75 // 0.00 (Day 0)"
-            String[] halves = rest.split("//", 2);
+            boolean hasClamped = s.indexOf("//") >= 0;
             // left of "//" = raw local diff
-            String local = halves[0].trim();
-            emit.accept("Numerator", local);
-
-            if (halves.length > 1) {
-                // right of "//" = clamped + day
-                String right = halves[1].trim();            // e.g. "0.00 (Day 0)"
-                // clamped is the first token
-                String[] tokens = right.split("\\s+", 2);
-                emit.accept("Denominator", tokens[0]);
-
-                if (tokens.length > 1) {
-                    // tokens[1] should be "(Day 0)" or similar
-                    String dayPart = tokens[1].trim();
-                    if (dayPart.startsWith("(Day") && dayPart.endsWith(")")) {
-                        // extract the number between "Day" and ")"
-                        String dayNum = dayPart.substring(4, dayPart.length() - 1).trim();
-                        emit.accept("Day", dayNum);
-                    }
+            emit.accept("Numerator", s.readUntil("//"));
+
+            if (hasClamped) {
+                // right of "//" = clamped + day, the clamped value is the first token
+                emit.accept("Denominator", s.readToken());
+
+                // then "(Day 0)" or similar
+                if (s.expect("(Day") && s.indexOf(')') >= 0) {
+                    emit.accept("Day", s.readUntil(')'));
                 }
             }
         }
+    }
 
-        return (data) -> {
-            String ld  = data.get("Numerator");
-            String cd  = data.get("Denominator");
-            String day = data.get("Day");
-            // skip if nothing present
-            if (ld == null && cd == null && day == null) {
-                return null;
-            }
-            StringBuilder sb = new StringBuilder("Local Difficulty");
-            if (ld != null) {
-                sb.append(": ").append(ld);
-            }
-            if (cd != null) {
-                sb.append(ld != null ? " // " : ": ").append(cd);
-            }
-            if (day != null) {
-                sb.append(" (Day ").append(day).append(")");
-            }
-            return Collections.singletonList(sb.toString());
-        };
+    private static List<String> rebuildLocLocalDifficulty(Map<String, String> data) {
+        String waiting = data.get("Waiting");
+        if (waiting != null) return Collections.singletonList(waiting);
+
+        String ld  = data.get("Numerator");
+        String cd  = data.get("Denominator");
+        String day = data.get("Day");
+        // skip if nothing present
+        if (ld == null && cd == null && day == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("Local Difficulty");
+        if (ld != null) {
+            sb.append(": ").append(ld);
+        }
+        if (cd != null) {
+            sb.append(ld != null ? " // " : ": ").append(cd);
+        }
+        if (day != null) {
+            sb.append(" (Day ").append(day).append(")");
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> locHeightmapClient(String line, BiConsumer<String, String> emit) {
-        if (line.contains("Waiting for chunk")) { return (x) -> Collections.singletonList(line); }
+    private static void locHeightmapClient(String line, DatumMask want, DatumEmitter emit) {
+        if (line.contains("Waiting for chunk")) {
+            emit.emitText("Waiting", line);
+            return;
+        }
         // "CH S: 63 M: 63"
-        String[] p = line.split("\\s+");
-        emit.accept("WorldSurface",    p[2]);
-        emit.accept("MotionBlocking", p[4]);
+        var s = LineScanner.of(line);
+        s.skipToken();
+        s.skipToken();
+        emitIntToken(s, want, emit, "WorldSurface",   null);
+        s.skipToken();
+        emitIntToken(s, want, emit, "MotionBlocking", null);
+    }
 
-        return (data) -> {
-            String ws = data.get("WorldSurface");
-            String mb = data.get("MotionBlocking");
+    private static List<String> rebuildLocHeightmapClient(Map<String, String> data) {
+        String waiting = data.get("Waiting");
+        if (waiting != null) return Collections.singletonList(waiting);
 
-            // only skip if both are missing
-            if (ws == null && mb == null) {
-                return null;
-            }
+        String ws = data.get("WorldSurface");
+        String mb = data.get("MotionBlocking");
 
-            StringBuilder sb = new StringBuilder("CH");
-            if (ws != null) {
-                sb.append(" S: ").append(ws);
-            }
-            if (mb != null) {
-                sb.append(" M: ").append(mb);
-            }
-            return Collections.singletonList(sb.toString());
-        };
-    }
-
-    private static Function<Map<String, String>, List<String>> locHeightmapServer(String line, BiConsumer<String, String> emit) {
-        if (line.contains("Waiting for chunk")) { return (x) -> Collections.singletonList(line); }
-        // "SH S: 63 O: 63 M: 63 ML: 63"
-        String[] p = line.split("\\s+");
-        emit.accept("WorldSurface",    p[2]);
-        emit.accept("OceanFloor",      p[4]);
-        emit.accept("MotionBlocking",  p[6]);
-        emit.accept("MotionBlockingNoLeaves", p[8]);
-
-        return (data) -> {
-            String ws = data.get("WorldSurface");
-            String of = data.get("OceanFloor");
-            String mb = data.get("MotionBlocking");
-            String ml = data.get("MotionBlockingNoLeaves");
-            // skip if nothing present
-            if (ws == null && of == null && mb == null && ml == null) {
-                return null;
-            }
-            StringBuilder sb = new StringBuilder("SH");
-            if (ws != null) sb.append(" S: ").append(ws);
-            if (of != null) sb.append(" O: ").append(of);
-            if (mb != null) sb.append(" M: ").append(mb);
-            if (ml != null) sb.append(" ML: ").append(ml);
-            return Collections.singletonList(sb.toString());
-        };
-    }
-
-    private static Function<Map<String, String>, List<String>> locBiome(String line, BiConsumer<String, String> emit) {
-        if (line.contains("Waiting for chunk")) { return (x) -> Collections.singletonList(line); }
-        emit.accept("LocationDetails.Biome", line.substring(7).trim());
-
-        return (data) -> {
-            String bio = data.get("LocationDetails.Biome");
-            if (bio == null) {
-                return null;
-            }
-            return Collections.singletonList("Biome: " + bio);
-        };
-    }
-
-    private static Function<Map<String, String>, List<String>> locNoiseRouter(String line, BiConsumer<String, String> emit) {
-        String[] tok = line.split("\\s+");
-        for (int k = 1; k < tok.length; k+=2) {
-            String key = tok[k].replace(":", "");
-            String val = tok[k+1];
-            switch (key) {
-                case "T"  -> emit.accept("Temperature", val);
-                case "V"  -> emit.accept("Vegetation", val);
-                case "C"  -> emit.accept("Continents", val);
-                case "E"  -> emit.accept("Erosion", val);
-                case "D"  -> emit.accept("Depth", val);
-                case "W"  -> emit.accept("Ridges", val);
-                case "PV" -> emit.accept("PeaksValleys", val);
-                case "AS" -> emit.accept("InitialDensity", val);
-                case "N"  -> emit.accept("FinalDensity", val);
-            }
+        // only skip if both are missing
+        if (ws == null && mb == null) {
+            return null;
         }
 
-        return (data) -> {
-            List<String> parts = new ArrayList<>();
-            String t = data.get("Temperature");
-            if (t != null) parts.add("T: " + t);
-            String v = data.get("Vegetation");
-            if (v != null) parts.add("V: " + v);
-            String c = data.get("Continents");
-            if (c != null) parts.add("C: " + c);
-            String e = data.get("Erosion");
-            if (e != null) parts.add("E: " + e);
-            String d = data.get("Depth");
-            if (d != null) parts.add("D: " + d);
-            String w = data.get("Ridges");
-            if (w != null) parts.add("W: " + w);
-            String pv = data.get("PeaksValleys");
-            if (pv != null) parts.add("PV: " + pv);
-            String as = data.get("InitialDensity");
-            if (as != null) parts.add("AS: " + as);
-            String n = data.get("FinalDensity");
-            if (n != null) parts.add("N: " + n);
-
-            if (parts.isEmpty()) {
-                return null;
-            }
-            return Collections.singletonList("NoiseRouter " + String.join(" ", parts));
-        };
+        StringBuilder sb = new StringBuilder("CH");
+        if (ws != null) {
+            sb.append(" S: ").append(ws);
+        }
+        if (mb != null) {
+            sb.append(" M: ").append(mb);
+        }
+        return Collections.singletonList(sb.toString());
+    }
+
+    private static void locHeightmapServer(String line, DatumMask want, DatumEmitter emit) {
+        if (line.contains("Waiting for chunk")) {
+            emit.emitText("Waiting", line);
+            return;
+        }
+        // "SH S: 63 O: 63 M: 63 ML: 63"; vanilla writes "??" for a height it can't get from the server
+        var s = LineScanner.of(line);
+        s.skipToken();
+        s.skipToken();
+        emitIntToken(s, want, emit, "WorldSurface",    null);
+        s.skipToken();
+        emitIntToken(s, want, emit, "OceanFloor",      null);
+        s.skipToken();
+        emitIntToken(s, want, emit, "MotionBlocking",  null);
+        s.skipToken();
+        emitIntToken(s, want, emit, "MotionBlockingNoLeaves", null);
+    }
+
+    private static List<String> rebuildLocHeightmapServer(Map<String, String> data) {
+        String waiting = data.get("Waiting");
+        if (waiting != null) return Collections.singletonList(waiting);
+
+        String ws = data.get("WorldSurface");
+        String of = data.get("OceanFloor");
+        String mb = data.get("MotionBlocking");
+        String ml = data.get("MotionBlockingNoLeaves");
+        // skip if nothing present
+        if (ws == null && of == null && mb == null && ml == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("SH");
+        if (ws != null) sb.append(" S: ").append(ws);
+        if (of != null) sb.append(" O: ").append(of);
+        if (mb != null) sb.append(" M: ").append(mb);
+        if (ml != null) sb.append(" ML: ").append(ml);
+        return Collections.singletonList(sb.toString());
+    }
+
+    private static void locBiome(String line, BiConsumer<String, String> emit) {
+        if (line.contains("Waiting for chunk")) {
+            emit.accept("Waiting", line);
+            return;
+        }
+        var s = LineScanner.of(line);
+        s.expect("Biome:");
+        emit.accept("LocationDetails.Biome", s.readRest());
+    }
+
+    private static List<String> rebuildLocBiome(Map<String, String> data) {
+        String waiting = data.get("Waiting");
+        if (waiting != null) return Collections.singletonList(waiting);
+
+        String bio = data.get("LocationDetails.Biome");
+        if (bio == null) {
+            return null;
+        }
+        return Collections.singletonList("Biome: " + bio);
+    }
+
+    private static void locNoiseRouter(String line, DatumMask want, DatumEmitter emit) {
+        var s = LineScanner.of(line);
+        s.skipToken();
+        while (s.nextToken()) {
+            if      (s.tokenIs("T:"))  emitNoiseValue(s, want, emit, "Temperature");
+            else if (s.tokenIs("V:"))  emitNoiseValue(s, want, emit, "Vegetation");
+            else if (s.tokenIs("C:"))  emitNoiseValue(s, want, emit, "Continents");
+            else if (s.tokenIs("E:"))  emitNoiseValue(s, want, emit, "Erosion");
+            else if (s.tokenIs("D:"))  emitNoiseValue(s, want, emit, "Depth");
+            else if (s.tokenIs("W:"))  emitNoiseValue(s, want, emit, "Ridges");
+            else if (s.tokenIs("PV:")) emitNoiseValue(s, want, emit, "PeaksValleys");
+            else if (s.tokenIs("AS:")) emitNoiseValue(s, want, emit, "InitialDensity");
+            else if (s.tokenIs("N:"))  emitNoiseValue(s, want, emit, "FinalDensity");
+            else s.skipToken();
+        }
+    }
+
+    // reads the next token as datumKey's value (vanilla writes them as "%.3f"), or just steps over it if that datum is blocked
+    private static void emitNoiseValue(LineScanner s, DatumMask want, DatumEmitter emit, String datumKey) {
+        if (!want.wants(datumKey)) {
+            s.skipToken();
+        } else if (s.atNumber()) {
+            emit.emitDouble(datumKey, s.readDouble(), 3, null);
+        } else {
+            emit.emitText(datumKey, s.readToken());
+        }
+    }
+
+    private static List<String> rebuildLocNoiseRouter(Map<String, String> data) {
+        List<String> parts = new ArrayList<>();
+        String t = data.get("Temperature");
+        if (t != null) parts.add("T: " + t);
+        String v = data.get("Vegetation");
+        if (v != null) parts.add("V: " + v);
+        String c = data.get("Continents");
+        if (c != null) parts.add("C: " + c);
+        String e = data.get("Erosion");
+        if (e != null) parts.add("E: " + e);
+        String d = data.get("Depth");
+        if (d != null) parts.add("D: " + d);
+        String w = data.get("Ridges");
+        if (w != null) parts.add("W: " + w);
+        String pv = data.get("PeaksValleys");
+        if (pv != null) parts.add("PV: " + pv);
+        String as = data.get("InitialDensity");
+        if (as != null) parts.add("AS: " + as);
+        String n = data.get("FinalDensity");
+        if (n != null) parts.add("N: " + n);
+
+        if (parts.isEmpty()) {
+            return null;
+        }
+        return Collections.singletonList("NoiseRouter " + String.join(" ", parts));
     }
 
-    private static Function<Map<String, String>, List<String>> locBiomeBuilder(String line, BiConsumer<String, String> emit) {
+    // the Biome builder labels, in order, and the PascalCase key each one maps to
+    private static final String[] biomeBuilderLabels = {"PV:", "C:", "E:", "T:", "H:"};
+    private static final String[] biomeBuilderKeys   = {"PeaksValleys", "Continentalness", "Erosion", "Temperature", "Humidity"};
+
+    private static void locBiomeBuilder(String line, BiConsumer<String, String> emit) {
         // strip off the leading text
-        String rest = line.substring("Biome builder".length()).trim();
-        // the labels, in order:
-        String[] labels = {"PV:", "C:", "E:", "T:", "H:"};
+        var s = LineScanner.of(line);
+        s.expect("Biome builder");
+        int restStart = s.position();
 
-        for (int idx = 0; idx < labels.length; idx++) {
-            String label = labels[idx];
-            int start = rest.indexOf(label);
+        for (int idx = 0; idx < biomeBuilderLabels.length; idx++) {
+            String label = biomeBuilderLabels[idx];
+            int start = s.indexOf(label, restStart);
             if (start < 0) continue;
 
             // compute end as the next label’s index, or end of string
             int valueStart = start + label.length();
-            int end = rest.length();
-            for (int j = idx + 1; j < labels.length; j++) {
-                int next = rest.indexOf(labels[j], valueStart);
+            int end = line.length();
+            for (int j = idx + 1; j < biomeBuilderLabels.length; j++) {
+                int next = s.indexOf(biomeBuilderLabels[j], valueStart);
                 if (next >= 0) {
                     end = next;
                     break;
                 }
             }
 
-            // extract & trim the multi-word value
-            String val = rest.substring(valueStart, end).trim();
-            // map label → PascalCase key
-            switch (label) {
-                case "PV:" -> emit.accept("PeaksValleys", val);
-                case "C:"  -> emit.accept("Continentalness", val);
-                case "E:"  -> emit.accept("Erosion", val);
-                case "T:"  -> emit.accept("Temperature", val);
-                case "H:"  -> emit.accept("Humidity", val);
-            }
+            // extract the multi-word value, mapping label → PascalCase key
+            emit.accept(biomeBuilderKeys[idx], s.text(valueStart, end));
         }
+    }
 
-        return (data) -> {
-            String[] labs  = {"PeaksValleys","Continentalness","Erosion","Temperature","Humidity"};
-            String[] codes = {"PV","C","E","T","H"};
-            List<String> parts = new ArrayList<>();
-            for (int idx = 0; idx < labs.length; idx++) {
-                String v = data.get(labs[idx]);
-                if (v != null) {
-                    parts.add(codes[idx] + ": " + v);
-                }
+    private static List<String> rebuildLocBiomeBuilder(Map<String, String> data) {
+        String[] labs  = {"PeaksValleys","Continentalness","Erosion","Temperature","Humidity"};
+        String[] codes = {"PV","C","E","T","H"};
+        List<String> parts = new ArrayList<>();
+        for (int idx = 0; idx < labs.length; idx++) {
+            String v = data.get(labs[idx]);
+            if (v != null) {
+                parts.add(codes[idx] + ": " + v);
             }
-            if (parts.isEmpty()) {
-                return null;
-            }
-            return Collections.singletonList("Biome builder " + String.join(" ", parts));
-        };
+        }
+        if (parts.isEmpty()) {
+            return null;
+        }
+        return Collections.singletonList("Biome builder " + String.join(" ", parts));
     }
 
-    private static Function<Map<String, String>, List<String>> locMobCaps(String line, BiConsumer<String, String> emit) {
-        String[] tok = line.replace(",", "").split("\\s+");
+    private static void locMobCaps(String line, DatumMask want, DatumEmitter emit) {
+        // "SC: 1, M: 0/70, C: 0/10, A: 0/15, A: 0/5, U: 0/5, W: 0/5, W: 0/20, M: 0/-1"
+        var s = LineScanner.of(line);
         int aCount = 0, wCount = 0, mCount = 0;
-        for (int k = 0; k < tok.length; k+=2) {
-            String key = tok[k].replace(":", "");
-            String val = tok[k+1];
-            switch (key) {
-                case "SC" -> emit.accept("Chunks", val);
-                case "M"  -> {
-                    if (mCount==0) emit.accept("Monsters", val);
-                    else           emit.accept("Misc", val);
-                    mCount++;
-                }
-                case "C"  -> emit.accept("Creatures", val);
-                case "A"  -> {
-                    if (aCount==0) emit.accept("Ambient", val);
-                    else           emit.accept("Axolotls", val);
-                    aCount++;
-                }
-                case "U"  -> emit.accept("Underground", val);
-                case "W"  -> {
-                    if (wCount==0) emit.accept("Water", val);
-                    else           emit.accept("Fish", val);
-                    wCount++;
-                }
-            }
+        while (s.nextToken()) {
+            if (s.tokenIs("SC:")) emitField(s, want, emit, "Chunks");
+            else if (s.tokenIs("M:")) {
+                emitField(s, want, emit, mCount==0 ? "Monsters" : "Misc");
+                mCount++;
+            }
+            else if (s.tokenIs("C:")) emitField(s, want, emit, "Creatures");
+            else if (s.tokenIs("A:")) {
+                emitField(s, want, emit, aCount==0 ? "Ambient" : "Axolotls");
+                aCount++;
+            }
+            else if (s.tokenIs("U:")) emitField(s, want, emit, "Underground");
+            else if (s.tokenIs("W:")) {
+                emitField(s, want, emit, wCount==0 ? "Water" : "Fish");
+                wCount++;
+            }
+            else s.skipToken();
         }
+    }
 
-        return (data) -> {
-            List<String> parts = new ArrayList<>();
-            Optional.ofNullable(data.get("Chunks"))
-                    .ifPresent(v -> parts.add("SC: " + v));
-            Optional.ofNullable(data.get("Monsters"))
-                    .ifPresent(v -> parts.add("M: " + v));
-            Optional.ofNullable(data.get("Creatures"))
-                    .ifPresent(v -> parts.add("C: " + v));
-            Optional.ofNullable(data.get("Ambient"))
-                    .ifPresent(v -> parts.add("A: " + v));
-            Optional.ofNullable(data.get("Axolotls"))
-                    .ifPresent(v -> parts.add("A: " + v));
-            Optional.ofNullable(data.get("Underground"))
-                    .ifPresent(v -> parts.add("U: " + v));
-            Optional.ofNullable(data.get("Water"))
-                    .ifPresent(v -> parts.add("W: " + v));
-            Optional.ofNullable(data.get("Fish"))
-                    .ifPresent(v -> parts.add("W: " + v));
-            Optional.ofNullable(data.get("Misc"))
-                    .ifPresent(v -> parts.add("M: " + v));
-            if (parts.isEmpty()) {
-                return null;
-            }
-            return Collections.singletonList(String.join(", ", parts));
-        };
-    }
-
-    private static Function<Map<String, String>, List<String>> locSounds(String line, BiConsumer<String, String> emit) {
-        String[] partsx = line.split("\\s+");
-        String[] stx = partsx[1].split("/");
-        emit.accept("Static", stx[0]);
-        emit.accept("StaticMax", stx[1]);
-        String[] srx = partsx[3].split("/");
-        emit.accept("Stream", srx[0]);
-        emit.accept("StreamMax", srx[1]);
-        String moodx = partsx[5].replace("(", "").replace(")", "").replace("%", "");
-        emit.accept("Mood", moodx);
-
-        return (data) -> {
-            String st  = data.get("Static");
-            String sm  = data.get("StaticMax");
-            String sr  = data.get("Stream");
-            String srm = data.get("StreamMax");
-            String mood= data.get("Mood");
-
-            // skip if nothing present
-            if (st == null && sm == null && sr == null && srm == null && mood == null) {
-                return null;
-            }
+    // reads up to the next comma as datumKey's value, or just steps past it if that datum is blocked
+    private static void emitField(LineScanner s, DatumMask want, BiConsumer<String, String> emit, String datumKey) {
+        if (want.wants(datumKey)) {
+            emit.accept(datumKey, s.readUntil(','));
+        } else {
+            s.skipUntil(',');
+        }
+    }
 
-            List<String> parts = new ArrayList<>();
-            if (st != null && sm != null) {
-                parts.add(st + "/" + sm);
-            } else if (st != null) {
-                parts.add(st);
-            } else if (sm != null) {
-                parts.add(sm);
-            }
-            if (sr != null) {
-                parts.add(sr + (srm != null ? "/" + srm : ""));
-            }
-            if (mood != null) {
-                parts.add("(Mood " + mood + "%)");
-            }
-            return Collections.singletonList("Sounds: " + String.join(" + ", parts));
-        };
+    private static List<String> rebuildLocMobCaps(Map<String, String> data) {
+        List<String> parts = new ArrayList<>();
+        Optional.ofNullable(data.get("Chunks"))
+                .ifPresent(v -> parts.add("SC: " + v));
+        Optional.ofNullable(data.get("Monsters"))
+                .ifPresent(v -> parts.add("M: " + v));
+        Optional.ofNullable(data.get("Creatures"))
+                .ifPresent(v -> parts.add("C: " + v));
+        Optional.ofNullable(data.get("Ambient"))
+                .ifPresent(v -> parts.add("A: " + v));
+        Optional.ofNullable(data.get("Axolotls"))
+                .ifPresent(v -> parts.add("A: " + v));
+        Optional.ofNullable(data.get("Underground"))
+                .ifPresent(v -> parts.add("U: " + v));
+        Optional.ofNullable(data.get("Water"))
+                .ifPresent(v -> parts.add("W: " + v));
+        Optional.ofNullable(data.get("Fish"))
+                .ifPresent(v -> parts.add("W: " + v));
+        Optional.ofNullable(data.get("Misc"))
+                .ifPresent(v -> parts.add("M: " + v));
+        if (parts.isEmpty()) {
+            return null;
+        }
+        return Collections.singletonList(String.join(", ", parts));
     }
 
-    private static Function<Map<String, String>, List<String>> sysJava(String line, BiConsumer<String, String> emit) {
+    private static void locSounds(String line, BiConsumer<String, String> emit) {
+        // "Sounds: 12/247 + 1/8 (Mood 0%)"
+        var s = LineScanner.of(line);
+        s.expect("Sounds:");
+        emit.accept("Static", s.readUntil('/'));
+        emit.accept("StaticMax", s.readToken());
+        s.skipToken();
+        emit.accept("Stream", s.readUntil('/'));
+        emit.accept("StreamMax", s.readToken());
+        if (s.skipPast("Mood")) {
+            emit.accept("Mood", s.readToken("%)"));
+        }
+    }
+
+    private static List<String> rebuildLocSounds(Map<String, String> data) {
+        String st  = data.get("Static");
+        String sm  = data.get("StaticMax");
+        String sr  = data.get("Stream");
+        String srm = data.get("StreamMax");
+        String mood= data.get("Mood");
+
+        // skip if nothing present
+        if (st == null && sm == null && sr == null && srm == null && mood == null) {
+            return null;
+        }
+
+        List<String> parts = new ArrayList<>();
+        if (st != null && sm != null) {
+            parts.add(st + "/" + sm);
+        } else if (st != null) {
+            parts.add(st);
+        } else if (sm != null) {
+            parts.add(sm);
+        }
+        if (sr != null) {
+            parts.add(sr + (srm != null ? "/" + srm : ""));
+        }
+        if (mood != null) {
+            parts.add("(Mood " + mood + "%)");
+        }
+        return Collections.singletonList("Sounds: " + String.join(" + ", parts));
+    }
+
+    private static void sysJava(String line, BiConsumer<String, String> emit) {
 
         // e.g. "Java: 21.0.6" or "Java: 17.0.2 (64bit)"
-        String rest = line.substring("Java:".length()).trim();
+        var s = LineScanner.of(line);
+        s.expect("Java:");
         // If it contains "(XXbit)", split that out:
-        if (rest.contains("(") && rest.endsWith("bit)")) {
-            int idx = rest.indexOf('(');
-            String version = rest.substring(0, idx).trim();              // "17.0.2"
-            String bits    = rest.substring(idx+1, rest.length()-1);     // "64bit"
-            emit.accept("Version", version);
-            emit.accept("Bits",    bits);
+        if (s.indexOf('(') >= 0 && line.endsWith("bit)")) {
+            emit.accept("Version", s.readUntil('('));   // "17.0.2"
+            emit.accept("Bits",    s.readUntil(')'));   // "64bit"
         } else {
             // no bits-info, just version
-            emit.accept("Version", rest);
+            emit.accept("Version", s.readRest());
         }
-
-        return (data) -> {
-            String version = data.get("Version");
-            String bits    = data.get("Bits");
-            // skip entirely if neither present
-            if (version == null && bits == null) return null;
-
-            StringBuilder sb = new StringBuilder("Java");
-            if (version != null) {
-                sb.append(": ").append(version);
-            }
-            if (bits != null) {
-                // if no version, still need colon
-                if (version == null) sb.append(":");
-                sb.append(" (").append(bits).append(")");
-            }
-            return Collections.singletonList(sb.toString());
-        };
     }
 
-    private static Function<Map<String, String>, List<String>> sysMemory(String line, BiConsumer<String, String> emit) {
+    private static List<String> rebuildSysJava(Map<String, String> data) {
+        String version = data.get("Version");
+        String bits    = data.get("Bits");
+        // skip entirely if neither present
+        if (version == null && bits == null) return null;
 
-        // Example: "Mem: 45% 512/1024"
-        String[] parts = line.split("[ %/]+");
-        // parts = ["Mem:", "45", "512", "1024"]
-        if (parts.length >= 4) {
-            emit.accept("UsedPercent", parts[1]);
-            emit.accept("Used", parts[2]);
-            emit.accept("Total", parts[3]);
+        StringBuilder sb = new StringBuilder("Java");
+        if (version != null) {
+            sb.append(": ").append(version);
         }
+        if (bits != null) {
+            // if no version, still need colon
+            if (version == null) sb.append(":");
+            sb.append(" (").append(bits).append(")");
+        }
+        return Collections.singletonList(sb.toString());
+    }
 
-        return (data) -> {
-            String up = data.get("UsedPercent");
-            String u  = data.get("Used");
-            String t  = data.get("Total");
-            // skip if nothing
-            if (up == null && u == null && t == null) return null;
+    private static void sysMemory(String line, DatumMask want, DatumEmitter emit) {
+
+        // Example: "Mem: 45% 512/1024MB"
+        var s = LineScanner.of(line);
+        s.expect("Mem:");
+        long percent = s.readLong();
+        if (s.expect('%') && s.indexOf('/') >= 0) {
+            emit.emitInt("UsedPercent", percent, "%");
+            emit.emitInt("Used", s.readLong(), "MB");
+            s.expect('/');
+            emit.emitInt("Total", s.readLong(), "MB");
+        }
+    }
 
-            StringBuilder sb = new StringBuilder("Mem:");
-            boolean first = true;
-            if (up != null) {
-                sb.append(" ").append(up).append("%");
-                first = false;
-            }
-            if (u != null || t != null) {
-                if (!first) sb.append(" ");
-                if (u != null) sb.append(u);
-                if (t != null) {
-                    sb.append("/");
-                    sb.append(t);
-                }
+    private static List<String> rebuildSysMemory(Map<String, String> data) {
+        String up = data.get("UsedPercent");
+        String u  = data.get("Used");
+        String t  = data.get("Total");
+        // skip if nothing
+        if (up == null && u == null && t == null) return null;
+
+        StringBuilder sb = new StringBuilder("Mem:");
+        boolean first = true;
+        if (up != null) {
+            sb.append(" ").append(up).append("%");
+            first = false;
+        }
+        if (u != null || t != null) {
+            // vanilla writes both as "%03d", e.g. "Mem: 4% 087/2048MB"
+            if (!first) sb.append(" ");
+            if (u != null) sb.append(StringUtils.leftPad(u, 3, '0'));
+            if (t != null) {
+                sb.append("/");
+                sb.append(StringUtils.leftPad(t, 3, '0')).append("MB");
             }
-            return Collections.singletonList(sb.toString());
-        };
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> sysAllocationRate(String line, BiConsumer<String, String> emit) {
+    private static void sysAllocationRate(String line, BiConsumer<String, String> emit) {
 
         // Example: "Allocation rate: 5.0 MiB/s"
-        String[] parts = line.split("\\s+");
-        if (parts.length >= 3) {
-            emit.accept("AllocationRate", parts[2]);
+        var s = LineScanner.of(line);
+        s.skipToken();
+        s.skipToken();
+        if (s.hasMore()) {
+            emit.accept("AllocationRate", s.readToken());
         }
+    }
 
-        return (data) -> {
-            String rate = data.get("AllocationRate");
-            if (rate != null) {
-                return Collections.singletonList("Allocation rate: " + rate);
-            }
-            return null;
-        };
+    private static List<String> rebuildSysAllocationRate(Map<String, String> data) {
+        String rate = data.get("AllocationRate");
+        if (rate != null) {
+            return Collections.singletonList("Allocation rate: " + rate);
+        }
+        return null;
     }
 
-    private static Function<Map<String, String>, List<String>> sysAllocated(String line, BiConsumer<String, String> emit) {
+    private static void sysAllocated(String line, BiConsumer<String, String> emit) {
 
-        // drop the prefix and split on whitespace
-        String rest = line.substring("Allocated:".length()).trim();
-        String[] tok = rest.split("\\s+");
+        // drop the prefix
+        var s = LineScanner.of(line);
+        s.expect("Allocated:");
         // 1) percent (always there)
-        if (tok.length >= 1) {
-            String pct = tok[0].endsWith("%")
-                    ? tok[0].substring(0, tok[0].length()-1)
-                    : tok[0];
-            emit.accept("AllocatedPercent", pct);
-        }
+        emit.accept("AllocatedPercent", s.readToken("%"));
+        s.expect('%');
         // 2) memory token (either “used/total” or “usedMB”)
-        if (tok.length >= 2) {
-            String mem = tok[1];
-            if (mem.contains("/")) {
-                String[] uv = mem.split("/", 2);
-                emit.accept("Allocated",      uv[0]);
-                emit.accept("AllocatedTotal", uv[1]);
-            } else {
-                // e.g. "1072MB" → treat whole string as "Allocated"
-                emit.accept("Allocated", mem);
-                // no total in this format, so we skip AllocatedTotal
-            }
+        //    e.g. "1072MB" → treat whole token as "Allocated", there's no total in this format
+        emit.accept("Allocated", s.readToken("/"));
+        if (s.expect('/')) {
+            emit.accept("AllocatedTotal", s.readToken());
         }
+    }
 
-        return (data) -> {
-            String ap = data.get("AllocatedPercent");
-            String au = data.get("Allocated");
-            String at = data.get("AllocatedTotal");
-            if (ap == null && au == null && at == null) return null;
-
-            StringBuilder sb = new StringBuilder("Allocated:");
-            boolean first = true;
-            if (ap != null) {
-                sb.append(" ").append(ap).append("%");
-                first = false;
-            }
-            if (au != null || at != null) {
-                if (!first) sb.append(" ");
-                if (au != null) sb.append(au);
-                if (at != null) {
-                    sb.append("/");
-                    sb.append(at);
-                }
+    private static List<String> rebuildSysAllocated(Map<String, String> data) {
+        String ap = data.get("AllocatedPercent");
+        String au = data.get("Allocated");
+        String at = data.get("AllocatedTotal");
+        if (ap == null && au == null && at == null) return null;
+
+        StringBuilder sb = new StringBuilder("Allocated:");
+        boolean first = true;
+        if (ap != null) {
+            sb.append(" ").append(ap).append("%");
+            first = false;
+        }
+        if (au != null || at != null) {
+            if (!first) sb.append(" ");
+            if (au != null) sb.append(au);
+            if (at != null) {
+                sb.append("/");
+                sb.append(at);
             }
-            return Collections.singletonList(sb.toString());
-        };
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> sysCPU(String line, BiConsumer<String, String> emit) {
+    private static void sysCPU(String line, BiConsumer<String, String> emit) {
 
         // Example: "CPU: 8 Intel(R) Core(TM)..."
-        String[] parts = line.split("\\s+", 3);
-        if (parts.length >= 2) {
-            emit.accept("Cores", parts[1]);
-            if (parts.length >= 3) {
-                emit.accept("Name", parts[2]);
-            }
-        }
+        var s = LineScanner.of(line);
+        s.skipToken();
+        emit.accept("Cores", s.readToken());
+        emit.accept("Name", s.readRest());
+    }
 
-        return (data) -> {
-            String cores = data.get("Cores");
-            String name  = data.get("Name");
-            if (cores == null && name == null) return null;
+    private static List<String> rebuildSysCPU(Map<String, String> data) {
+        String cores = data.get("Cores");
+        String name  = data.get("Name");
+        if (cores == null && name == null) return null;
 
-            StringBuilder sb = new StringBuilder("CPU");
-            if (cores != null) sb.append(": ").append(cores);
-            if (name  != null) sb.append(cores != null ? " " : ": ").append(name);
-            return Collections.singletonList(sb.toString());
-        };
+        StringBuilder sb = new StringBuilder("CPU");
+        if (cores != null) sb.append(": ").append(cores);
+        if (name  != null) sb.append(cores != null ? " " : ": ").append(name);
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> sysDisplay(String line, BiConsumer<String, String> emit) {
+    private static void sysDisplay(String line, BiConsumer<String, String> emit) {
 
-        // 1) parse the Display: resolution/vendor as before
-        Matcher dispMatch = Pattern.compile("Display:\\s*(\\S+)\\s*\\(([^)]+)\\)")
-                .matcher(line);
-        if (dispMatch.find()) {
-            emit.accept("Resolution", dispMatch.group(1));
-            emit.accept("Vendor",     dispMatch.group(2));
+        // e.g. "Display: 1920x1080 (NVIDIA Corporation)"
+        var s = LineScanner.of(line);
+        if (s.skipPast("Display:")) {
+            String resolution = s.readToken("(");
+            if (s.expect('(') && s.indexOf(')') >= 0) {
+                emit.accept("Resolution", resolution);
+                emit.accept("Vendor",     s.readUntil(')'));
+            }
         }
+    }
 
-        return (data) -> {
-            String res    = data.get("Resolution");
-            String vendor = data.get("Vendor");
-            if (res == null && vendor == null) return null;
+    private static List<String> rebuildSysDisplay(Map<String, String> data) {
+        String res    = data.get("Resolution");
+        String vendor = data.get("Vendor");
+        if (res == null && vendor == null) return null;
 
-            StringBuilder sb = new StringBuilder("Display");
-            if (res != null) {
-                sb.append(": ").append(res);
-            }
-            if (vendor != null) {
-                // if no resolution, need colon
-                if (res == null) sb.append(":");
-                sb.append(" (").append(vendor).append(")");
-            }
-            return Collections.singletonList(sb.toString());
-        };
+        StringBuilder sb = new StringBuilder("Display");
+        if (res != null) {
+            sb.append(": ").append(res);
+        }
+        if (vendor != null) {
+            // if no resolution, need colon
+            if (res == null) sb.append(":");
+            sb.append(" (").append(vendor).append(")");
+        }
+        return Collections.singletonList(sb.toString());
     }
 
-    private static Function<Map<String, String>, List<String>> sysRenderer(String line, BiConsumer<String, String> emit) {
+    private static void sysRenderer(String line, BiConsumer<String, String> emit) {
 
         emit.accept("Renderer", line);
+    }
 
-        return (data) -> {
-            String renderer = data.get("Renderer");
-            if (renderer != null) {
-                return Collections.singletonList(renderer);
-            }
-            return null;
-        };
+    private static List<String> rebuildSysRenderer(Map<String, String> data) {
+        String renderer = data.get("Renderer");
+        if (renderer != null) {
+            return Collections.singletonList(renderer);
+        }
+        return null;
     }
 
-    private static Function<Map<String, String>, List<String>> sysOpenGLVersion(String line, BiConsumer<String, String> emit) {
+    private static void sysOpenGLVersion(String line, BiConsumer<String, String> emit) {
 
         emit.accept("OpenGLVersion", line);
+    }
 
-        return (data) -> {
-            String version = data.get("OpenGLVersion");
-            if (version != null) {
-                return Collections.singletonList(version);
-            }
-            return null;
-        };
+    private static List<String> rebuildSysOpenGLVersion(Map<String, String> data) {
+        String version = data.get("OpenGLVersion");
+        if (version != null) {
+            return Collections.singletonList(version);
+        }
+        return null;
     }
 
 
@@ -1178,42 +1232,45 @@ public class LestoraDebugMod {
 
 
 
-    private static Function<Map<String, String>, List<String>> targetCoords(String line, String type, BiConsumer<String, String> emit) {
+    private static void targetCoords(String line, BiConsumer<String, String> emit) {
         emit.accept("Coords", line);
+    }
 
-        return (data) -> {
-            String coords = data.get("Coords");
-            if (coords == null) return null;
-            else coords = ": " + coords;
+    private static List<String> rebuildTargetCoords(Map<String, String> data, String type) {
+        String coords = data.get("Coords");
+        if (coords == null) return null;
+        else coords = ": " + coords;
 
-            return Collections.singletonList(ChatFormatting.UNDERLINE + "Targeted " + type + coords);
-        };
+        return Collections.singletonList(ChatFormatting.UNDERLINE + "Targeted " + type + coords);
     }
 
-    private static Function<Map<String, String>, List<String>> targetResourceLocation(String line, BiConsumer<String, String> emit) {
+    private static void targetResourceLocation(String line, BiConsumer<String, String> emit) {
         emit.accept("ResourceLocation", line);
-        return (data) -> Collections.singletonList(data.get("ResourceLocation"));
     }
 
-    private static Function<Map<String, String>, List<String>> targetStates(String line, BiConsumer<String, String> emit) {
+    private static List<String> rebuildTargetResourceLocation(Map<String, String> data) {
+        return Collections.singletonList(data.get("ResourceLocation"));
+    }
+
+    private static void targetStates(String line, BiConsumer<String, String> emit) {
         emit.accept("States", line);
+    }
 
-        return (data) -> {
-            String states = data.get("States");
-            if (states == null || states.isBlank()) return null;
+    private static List<String> rebuildTargetStates(Map<String, String> data) {
+        String states = data.get("States");
+        if (states == null || states.isBlank()) return null;
 
-            return List.of(states.split(";"));
-        };
+        return List.of(states.split(";"));
     }
 
-    private static Function<Map<String, String>, List<String>> targetBlockTags(String line, BiConsumer<String, String> emit) {
+    private static void targetBlockTags(String line, BiConsumer<String, String> emit) {
         emit.accept("Tags", line);
+    }
 
-        return (data) -> {
-            String tags = data.get("Tags");
-            if (tags == null || tags.isBlank()) return null;
+    private static List<String> rebuildTargetBlockTags(Map<String, String> data) {
+        String tags = data.get("Tags");
+        if (tags == null || tags.isBlank()) return null;
 
-            return List.of(tags.split(";"));
-        };
+        return List.of(tags.split(";"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * Maps raw F3 lines to lineKeys by their leading text.
+ * <p>
+ * Signatures are compiled into a first-character jump table (longest prefix first within each bucket), so a line is
+ * only compared against the few signatures that share its first character instead of every rule in turn.
+ * Leading formatting codes such as "§n" are skipped before matching.
+ * <p>
+ * Vanilla emits its lines in the same order every frame, so {@link #classifyAt(int, String)} also remembers which
+ * signature matched at each line index. On the next frame that line is only checked against that signature again
+ * (its prefix, then its contains-guard if it has one), and is only reclassified if that fails. Contains-only
+ * signatures are never remembered this way: with no prefix to anchor them, a line shifted in by another mod could keep
+ * matching them at the wrong index, so lines they match are looked up in full every frame.
+ */
+public class LineClassifier {
+    private static final int ASCII = 128;
+    private static final Signature[] none = new Signature[0];
+
+    private record Signature(String prefix, String contains, String lineKey) {
+        boolean matches(String line, int offset) {
+            return line.startsWith(prefix, offset)
+                    && (contains == null || line.indexOf(contains, offset + prefix.length()) >= 0);
+        }
+    }
+
+    private final Map<String, Signature> signatures = new LinkedHashMap<>();
+    private Signature[][] table;
+    private boolean dirty = true;
+    private Signature[] byIndex = none;
+
+    /**
+     * Register (or replace) a signature.
+     *
+     * @param prefix    what the trimmed line starts with, e.g. "Client Light:"; may be empty if {@code contains} is set
+     * @param contains  optional text that must also appear somewhere after the prefix, or null
+     * @param lineKey   the lineKey a matching line belongs to
+     */
+    public void register(String prefix, String contains, String lineKey) {
+        if (prefix == null) prefix = "";
+        if (contains != null && contains.isEmpty()) contains = null;
+        if (prefix.isEmpty() && contains == null) {
+            throw new IllegalArgumentException("A line signature for " + lineKey + " needs a prefix or a contains-guard");
+        }
+        signatures.put(prefix + '\u0000' + contains, new Signature(prefix, contains, lineKey));
+        dirty = true;
+    }
+
+    /** Forget every signature that points at the given lineKey. */
+    public void unregister(String lineKey) {
+        if (signatures.values().removeIf(sig -> sig.lineKey().equals(lineKey))) {
+            dirty = true;
+        }
+    }
+
+    /** @return the lineKey for this (already trimmed) line, or null if no signature matches */
+    public String classify(String line) {
+        if (line == null || line.isEmpty()) return null;
+        if (dirty) compile();
+
+        Signature sig = find(line, skipFormatting(line));
+        return sig == null ? null : sig.lineKey();
+    }
+
+    /**
+     * Same as {@link #classify(String)}, but reuses whatever matched at this line index on the previous frame
+     * as long as the line still matches that signature. Only signatures with a prefix are reused; a line matched by a
+     * contains-only one goes through the full lookup every time.
+     *
+     * @param index  the line's position in the vanilla list
+     * @param line   the trimmed line
+     */
+    public String classifyAt(int index, String line) {
+        if (line == null || line.isEmpty()) return null;
+        if (dirty) compile();
+
+        int offset = skipFormatting(line);
+        if (index < byIndex.length) {
+            Signature cached = byIndex[index];
+            if (cached != null && guard(cached, line, offset)) return cached.lineKey();
+        }
+
+        Signature sig = find(line, offset);
+        if (sig != null && !sig.prefix().isEmpty()) {
+            if (index >= byIndex.length) byIndex = Arrays.copyOf(byIndex, Math.max(index + 1, byIndex.length * 2));
+            byIndex[index] = sig;
+        }
+        return sig == null ? null : sig.lineKey();
+    }
+
+    private Signature find(String line, int offset) {
+        if (offset < line.length()) {
+            for (Signature sig : table[bucket(line.charAt(offset))]) {
+                if (sig.matches(line, offset)) return sig;
+            }
+        }
+        for (Signature sig : table[ASCII + 1]) {
+            if (sig.matches(line, offset)) return sig;
+        }
+        return null;
+    }
+
+    // re-check for a cached match, which always has a prefix: its first character, then the whole signature
+    private static boolean guard(Signature sig, String line, int offset) {
+        return offset < line.length() && line.charAt(offset) == sig.prefix().charAt(0) && sig.matches(line, offset);
+    }
+
+    /** Index of the first character after any leading "§x" formatting codes. */
+    static int skipFormatting(String line) {
+        int offset = 0;
+        while (offset + 1 < line.length() && line.charAt(offset) == '§') {
+            offset += 2;
+        }
+        return offset;
+    }
+
+    private void compile() {
+        // buckets 0-127 are ASCII first characters, 128 is everything else, 129 holds contains-only signatures
+        List<List<Signature>> buckets = new ArrayList<>();
+        for (int i = 0; i < ASCII + 2; i++) buckets.add(new ArrayList<>());
+
+        for (Signature sig : signatures.values()) {
+            int idx = sig.prefix().isEmpty() ? ASCII + 1 : bucket(sig.prefix().charAt(0));
+            buckets.get(idx).add(sig);
+        }
+
+        Signature[][] compiled = new Signature[ASCII + 2][];
+        for (int i = 0; i < compiled.length; i++) {
+            List<Signature> bucket = buckets.get(i);
+            if (bucket.isEmpty()) {
+                compiled[i] = none;
+                continue;
+            }
+            // most specific first: longer prefixes, then guarded over unguarded
+            bucket.sort(Comparator.comparingInt((Signature sig) -> sig.prefix().length()).reversed()
+                    .thenComparing(sig -> sig.contains() == null));
+            compiled[i] = bucket.toArray(none);
+        }
+
+        table = compiled;
+        byIndex = none;
+        dirty = false;
+    }
+
+    private static int bucket(char first) {
+        return first < ASCII ? first : ASCII;
+    }
+}
@@ -0,0 +1,370 @@
+package com.lestora.debug;
+
+/**
+ * A reusable, cursor-based reader over a single F3 line.
+ * <p>
+ * Handlers run once per line per frame, so prefer this over {@code split}, {@code substring} and {@code replace}:
+ * the scanner walks the line in place and only allocates when you ask it for a String.
+ * Every read skips leading whitespace first, and every String it hands back is already trimmed.
+ */
+public final class LineScanner {
+    private static final ThreadLocal<LineScanner> shared = ThreadLocal.withInitial(LineScanner::new);
+
+    private CharSequence text = "";
+    private int pos;
+    private int limit;
+    private int tokenStart;
+    private int tokenEnd;
+    private int fractionDigits;
+    private int integerDigits;
+
+    /**
+     * Reset this thread's shared scanner over the given line.
+     * The shared instance is handed to the next caller as well, so don't hold onto it past your handler.
+     */
+    public static LineScanner of(CharSequence text) {
+        return shared.get().reset(text);
+    }
+
+    public LineScanner reset(CharSequence text) {
+        this.text = text == null ? "" : text;
+        this.pos = 0;
+        this.limit = this.text.length();
+        this.tokenStart = 0;
+        this.tokenEnd = 0;
+        this.fractionDigits = 0;
+        this.integerDigits = 0;
+        return this;
+    }
+
+    public int position() {
+        return pos;
+    }
+
+    public LineScanner seek(int position) {
+        pos = Math.max(0, Math.min(position, limit));
+        return this;
+    }
+
+    public LineScanner skip(int count) {
+        return seek(pos + count);
+    }
+
+    public boolean hasMore() {
+        skipWhitespace();
+        return pos < limit;
+    }
+
+    /** The character under the cursor, or 0 at the end of the line. */
+    public char peek() {
+        return pos < limit ? text.charAt(pos) : '\0';
+    }
+
+    public LineScanner skipWhitespace() {
+        while (pos < limit && Character.isWhitespace(text.charAt(pos))) pos++;
+        return this;
+    }
+
+    /** Skip one whitespace-delimited token. */
+    public boolean skipToken() {
+        return nextToken();
+    }
+
+    /**
+     * Step over the next whitespace-delimited token without turning it into a String.
+     * Use {@link #tokenIs(String)} to look at what was stepped over.
+     */
+    public boolean nextToken() {
+        skipWhitespace();
+        tokenStart = pos;
+        while (pos < limit && !Character.isWhitespace(text.charAt(pos))) pos++;
+        tokenEnd = pos;
+        return tokenEnd > tokenStart;
+    }
+
+    /** True if the token last stepped over by {@link #nextToken()} is exactly {@code literal}. */
+    public boolean tokenIs(String literal) {
+        return tokenEnd - tokenStart == literal.length() && regionMatches(tokenStart, literal);
+    }
+
+    /** Consume the next token only if it is exactly {@code literal}. */
+    public boolean expectToken(String literal) {
+        int mark = pos;
+        if (nextToken() && tokenIs(literal)) return true;
+        pos = mark;
+        return false;
+    }
+
+    /** Consume {@code literal} only if the text (after whitespace) starts with it. */
+    public boolean expect(String literal) {
+        skipWhitespace();
+        if (regionMatches(pos, literal)) {
+            pos += literal.length();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean expect(char c) {
+        skipWhitespace();
+        if (pos < limit && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /** Move the cursor just past the next {@code c}. The cursor doesn't move if there isn't one. */
+    public boolean skipPast(char c) {
+        int idx = indexOf(c);
+        if (idx < 0) return false;
+        pos = idx + 1;
+        return true;
+    }
+
+    /** Move the cursor just past the next {@code token}. The cursor doesn't move if there isn't one. */
+    public boolean skipPast(String token) {
+        int idx = indexOf(token);
+        if (idx < 0) return false;
+        pos = idx + token.length();
+        return true;
+    }
+
+    /** Move the cursor just past the next whitespace-delimited token equal to {@code token}. */
+    public boolean skipPastToken(String token) {
+        int idx = indexOfToken(token);
+        if (idx < 0) return false;
+        pos = idx + token.length();
+        return true;
+    }
+
+    public int indexOf(char c) {
+        for (int i = pos; i < limit; i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    public int indexOf(String token) {
+        return indexOf(token, pos);
+    }
+
+    public int indexOf(String token, int from) {
+        int last = limit - token.length();
+        for (int i = Math.max(from, 0); i <= last; i++) {
+            if (regionMatches(i, token)) return i;
+        }
+        return -1;
+    }
+
+    /** Index of the next whitespace-delimited token equal to {@code token}, or -1. */
+    public int indexOfToken(String token) {
+        int idx = indexOf(token, pos);
+        while (idx >= 0) {
+            int after = idx + token.length();
+            boolean startsToken = idx == 0 || Character.isWhitespace(text.charAt(idx - 1));
+            boolean endsToken = after >= limit || Character.isWhitespace(text.charAt(after));
+            if (startsToken && endsToken) return idx;
+            idx = indexOf(token, idx + 1);
+        }
+        return -1;
+    }
+
+    /** Count the occurrences of {@code c} between the cursor and the end of the line. */
+    public int countAhead(char c) {
+        int count = 0;
+        for (int i = pos; i < limit; i++) {
+            if (text.charAt(i) == c) count++;
+        }
+        return count;
+    }
+
+    /** True if whatever is left of the line (ignoring whitespace) is exactly {@code literal}. */
+    public boolean restEquals(String literal) {
+        int start = skipWhitespace().pos;
+        int end = trimEnd(start, limit);
+        return end - start == literal.length() && regionMatches(start, literal);
+    }
+
+    /** True if the next token starts with a digit, optionally after a sign. */
+    public boolean atNumber() {
+        skipWhitespace();
+        int i = pos;
+        if (i < limit && (text.charAt(i) == '-' || text.charAt(i) == '+')) i++;
+        return i < limit && isDigit(text.charAt(i));
+    }
+
+    /** True if the next whitespace-delimited token is a whole integer, optionally signed. */
+    public boolean atIntToken() {
+        skipWhitespace();
+        int i = pos;
+        if (i < limit && (text.charAt(i) == '-' || text.charAt(i) == '+')) i++;
+        int digitsStart = i;
+        while (i < limit && isDigit(text.charAt(i))) i++;
+        return i > digitsStart && (i == limit || Character.isWhitespace(text.charAt(i)));
+    }
+
+    /** Read the next whitespace-delimited token. */
+    public String readToken() {
+        nextToken();
+        return text(tokenStart, tokenEnd);
+    }
+
+    /** Read the next token, stopping early at whitespace or any of {@code stopChars}. The stop char isn't consumed. */
+    public String readToken(String stopChars) {
+        skipWhitespace();
+        int start = pos;
+        while (pos < limit) {
+            char c = text.charAt(pos);
+            if (Character.isWhitespace(c) || stopChars.indexOf(c) >= 0) break;
+            pos++;
+        }
+        return text(start, pos);
+    }
+
+    /** Read up to the next {@code delim} (or the end of the line) and consume the delimiter. */
+    public String readUntil(char delim) {
+        skipWhitespace();
+        int start = pos;
+        int idx = indexOf(delim);
+        int end = idx < 0 ? limit : idx;
+        pos = idx < 0 ? limit : idx + 1;
+        return text(start, end);
+    }
+
+    /** Like {@link #readUntil(char)}, but only moves the cursor, without building the String. */
+    public void skipUntil(char delim) {
+        int idx = indexOf(delim);
+        pos = idx < 0 ? limit : idx + 1;
+    }
+
+    /** Read up to the next {@code delim} (or the end of the line) and consume the delimiter. */
+    public String readUntil(String delim) {
+        skipWhitespace();
+        int start = pos;
+        int idx = indexOf(delim);
+        int end = idx < 0 ? limit : idx;
+        pos = idx < 0 ? limit : idx + delim.length();
+        return text(start, end);
+    }
+
+    /** Read whatever is left of the line. */
+    public String readRest() {
+        skipWhitespace();
+        int start = pos;
+        pos = limit;
+        return text(start, limit);
+    }
+
+    public int readInt() {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range at " + tokenStart + ": " + text);
+        }
+        return (int) value;
+    }
+
+    public long readLong() {
+        skipWhitespace();
+        tokenStart = pos;
+        boolean negative = false;
+        if (pos < limit && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+            negative = text.charAt(pos) == '-';
+            pos++;
+        }
+        int digitsStart = pos;
+        long value = 0;
+        while (pos < limit && isDigit(text.charAt(pos))) {
+            value = value * 10 + (text.charAt(pos) - '0');
+            pos++;
+        }
+        tokenEnd = pos;
+        if (pos == digitsStart) {
+            pos = tokenStart;
+            throw new NumberFormatException("Expected a number at " + tokenStart + ": " + text);
+        }
+        integerDigits = pos - digitsStart;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Read a plain decimal number (no exponent), e.g. {@code -123.456}.
+     * {@link #lastFractionDigits()} tells you how many decimals it was written with.
+     */
+    public double readDouble() {
+        skipWhitespace();
+        tokenStart = pos;
+        boolean negative = false;
+        if (pos < limit && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+            negative = text.charAt(pos) == '-';
+            pos++;
+        }
+        int digitsStart = pos;
+        long mantissa = 0;
+        int fraction = 0;
+        boolean inFraction = false;
+        while (pos < limit) {
+            char c = text.charAt(pos);
+            if (isDigit(c)) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (inFraction) fraction++;
+            } else if (c == '.' && !inFraction) {
+                inFraction = true;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        tokenEnd = pos;
+        if (pos == digitsStart || (pos == digitsStart + 1 && inFraction)) {
+            pos = tokenStart;
+            throw new NumberFormatException("Expected a decimal at " + tokenStart + ": " + text);
+        }
+        fractionDigits = fraction;
+        double value = mantissa / pow10(fraction);
+        return negative ? -value : value;
+    }
+
+    public int lastFractionDigits() {
+        return fractionDigits;
+    }
+
+    /** How many digits the last {@link #readInt()}/{@link #readLong()} read, e.g. 3 for "007". */
+    public int lastIntegerDigits() {
+        return integerDigits;
+    }
+
+    /** The trimmed text between two absolute positions. */
+    public String text(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, limit);
+        while (from < to && Character.isWhitespace(text.charAt(from))) from++;
+        to = trimEnd(from, to);
+        if (from >= to) return "";
+        if (from == 0 && to == text.length() && text instanceof String s) return s;
+        return text.subSequence(from, to).toString();
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) to--;
+        return to;
+    }
+
+    private boolean regionMatches(int at, String literal) {
+        if (at < 0 || at + literal.length() > limit) return false;
+        for (int i = 0; i < literal.length(); i++) {
+            if (text.charAt(at + i) != literal.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static double pow10(int exp) {
+        double result = 1;
+        for (int i = 0; i < exp; i++) result *= 10;
+        return result;
+    }
+}
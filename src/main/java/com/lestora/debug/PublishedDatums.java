@@ -0,0 +1,108 @@
+package com.lestora.debug;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Datums pushed in from any thread through {@link DebugDataParser#publish}, e.g. a mod's server-side temperature.
+ * <p>
+ * Each key gets its own slot holding the latest value, replaced with a single atomic write, so producers never wait
+ * on each other or on rendering. The render thread picks up whatever changed since the last frame before building
+ * a column; a version counter lets it skip even that when nothing was published.
+ */
+public final class PublishedDatums {
+    // the value of an unpublished datum
+    private static final DatumValue REMOVED = new DatumValue(null, null, 0, 0, 0, null);
+
+    /** The latest value for one "lineKey.datumKey". */
+    static final class Slot {
+        final String lineKey;
+        final String datumKey;
+        private final AtomicReference<DatumValue> latest = new AtomicReference<>(REMOVED);
+        // render thread only: what was last applied to the store
+        private DatumValue applied = REMOVED;
+
+        private Slot(String fullKey) {
+            int dot = DatumKeys.splitAt(fullKey);
+            this.lineKey = fullKey.substring(0, dot);
+            this.datumKey = fullKey.substring(dot + 1);
+        }
+
+        /** Whether the value changed since the last call; render thread only. */
+        boolean take() {
+            DatumValue value = latest.get();
+            if (value == applied) return false;
+            applied = value;
+            return true;
+        }
+
+        boolean isRemoved() {
+            return applied == REMOVED;
+        }
+
+        void emitTo(DebugDataParser.DatumEmitter datumEmitter) {
+            applied.emitTo(datumKey, datumEmitter);
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private static final Set<String> lineKeys = ConcurrentHashMap.newKeySet();
+    // bumped after every write; the render thread remembers the last one it saw
+    private static final AtomicLong version = new AtomicLong();
+    private static long appliedVersion;
+
+    private PublishedDatums() { }
+
+    static void publishText(String key, String value) {
+        set(key, value == null ? REMOVED : DatumValue.text(value));
+    }
+
+    static void publishInt(String key, long value, int minDigits, String unit) {
+        set(key, DatumValue.ofLong(value, minDigits, unit));
+    }
+
+    static void publishDouble(String key, double value, int fractionDigits, String unit) {
+        set(key, DatumValue.ofDouble(value, fractionDigits, unit));
+    }
+
+    static void unpublish(String key) {
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            slot.latest.set(REMOVED);
+            version.incrementAndGet();
+        }
+    }
+
+    private static void set(String key, DatumValue value) {
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(key, Slot::new);
+            lineKeys.add(slot.lineKey);
+        }
+        slot.latest.set(value);
+        version.incrementAndGet();
+    }
+
+    /** Whether anything was published to this lineKey; such lines are filled in here rather than from vanilla. */
+    public static boolean isPublished(String lineKey) {
+        return !lineKeys.isEmpty() && lineKeys.contains(lineKey);
+    }
+
+    /**
+     * Whether anything was published since the last call; render thread only. Read before walking {@link #slots()},
+     * so a write that lands during the walk is still picked up next time.
+     */
+    static boolean takeChanged() {
+        long now = version.get();
+        if (now == appliedVersion) return false;
+        appliedVersion = now;
+        return true;
+    }
+
+    static Collection<Slot> slots() {
+        return slots.values();
+    }
+}
@@ -0,0 +1,139 @@
+package com.lestora.debug;
+
+import java.util.*;
+
+/**
+ * Decides how often the F3 columns are actually re-parsed and rebuilt.
+ * <p>
+ * Nobody can read text that changes at 240 Hz, so between refreshes the overlay is served from the last rebuilt
+ * columns. In {@link Mode#ADAPTIVE} the rate also drops on its own while frames take longer than the budget, and
+ * climbs back once they don't. Line keys in {@link #liveKeys} (e.g. "LocationDetails.Position") opt out and are
+ * still parsed every frame.
+ */
+public final class RefreshGovernor {
+    public enum Mode {
+        /** Refresh at exactly {@link #getTargetHz()}. */
+        FIXED,
+        /** Refresh at up to {@link #getTargetHz()}, backing off while frame time is over budget. */
+        ADAPTIVE,
+        /** Refresh every frame. */
+        UNLIMITED
+    }
+
+    public static final int MIN_HZ = 1;
+    public static final int MAX_HZ = 240;
+
+    // adaptive mode never goes below this on its own
+    private static final double ADAPTIVE_FLOOR_HZ = 2;
+    private static final long ADJUST_INTERVAL_NANOS = 500_000_000L;
+    // anything longer than this between two frames means F3 was closed (or the game was paused), not a slow frame
+    private static final long MAX_FRAME_GAP_NANOS = 1_000_000_000L;
+
+    // Line keys that skip the governor and are parsed every frame. Empty by default: a live line that's still read
+    // from vanilla's text makes vanilla build its whole column every frame, unless the line is switched to its provider.
+    public static final Set<String> liveKeys = new LinkedHashSet<>();
+
+    private static Mode mode = Mode.ADAPTIVE;
+    private static int targetHz = 20;
+    private static double frameBudgetMs = 1000.0 / 60;
+
+    private static double currentHz = targetHz;
+    private static double smoothedFrameMs;
+    private static long lastFrame;
+    private static long lastAdjust;
+    private static long nextLeftRefresh;
+    private static long nextRightRefresh;
+    private static boolean leftForced = true;
+    private static boolean rightForced = true;
+
+    private RefreshGovernor() { }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode newMode) {
+        mode = newMode;
+        currentHz = targetHz;
+        forceRefresh();
+    }
+
+    public static int getTargetHz() {
+        return targetHz;
+    }
+
+    /** @param hz  refreshes per second, clamped to {@link #MIN_HZ}..{@link #MAX_HZ} */
+    public static void setTargetHz(int hz) {
+        targetHz = Math.max(MIN_HZ, Math.min(MAX_HZ, hz));
+        currentHz = targetHz;
+        forceRefresh();
+    }
+
+    public static double getFrameBudgetMs() {
+        return frameBudgetMs;
+    }
+
+    public static void setFrameBudgetMs(double budgetMs) {
+        frameBudgetMs = Math.max(1, budgetMs);
+    }
+
+    /** The rate columns are refreshed at right now; lower than the target while adaptive mode is backing off. */
+    public static double getCurrentHz() {
+        return mode == Mode.FIXED ? targetHz : currentHz;
+    }
+
+    public static double getSmoothedFrameMs() {
+        return smoothedFrameMs;
+    }
+
+    public static boolean isLive(String lineKey) {
+        return liveKeys.contains(lineKey);
+    }
+
+    /** Rebuild both columns on the next frame, whatever the rate. */
+    public static void forceRefresh() {
+        leftForced = true;
+        rightForced = true;
+    }
+
+    /** Call once per rendered frame, before either column is asked for. */
+    public static void frame() {
+        long now = System.nanoTime();
+        long gap = now - lastFrame;
+        lastFrame = now;
+        if (gap <= 0 || gap > MAX_FRAME_GAP_NANOS) return;
+
+        double frameMs = gap / 1_000_000.0;
+        smoothedFrameMs = smoothedFrameMs == 0 ? frameMs : smoothedFrameMs * 0.9 + frameMs * 0.1;
+
+        if (mode != Mode.ADAPTIVE || now - lastAdjust < ADJUST_INTERVAL_NANOS) return;
+        lastAdjust = now;
+        if (smoothedFrameMs > frameBudgetMs) {
+            currentHz = Math.max(Math.min(ADAPTIVE_FLOOR_HZ, targetHz), currentHz / 2);
+        } else if (smoothedFrameMs < frameBudgetMs * 0.8) {
+            currentHz = Math.min(targetHz, currentHz * 1.5);
+        }
+    }
+
+    public static boolean isLeftDue() {
+        return mode == Mode.UNLIMITED || leftForced || System.nanoTime() - nextLeftRefresh >= 0;
+    }
+
+    public static boolean isRightDue() {
+        return mode == Mode.UNLIMITED || rightForced || System.nanoTime() - nextRightRefresh >= 0;
+    }
+
+    public static void leftRefreshed() {
+        leftForced = false;
+        nextLeftRefresh = System.nanoTime() + interval();
+    }
+
+    public static void rightRefreshed() {
+        rightForced = false;
+        nextRightRefresh = System.nanoTime() + interval();
+    }
+
+    private static long interval() {
+        return (long) (1_000_000_000L / getCurrentHz());
+    }
+}
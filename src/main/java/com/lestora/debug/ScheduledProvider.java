@@ -0,0 +1,124 @@
+package com.lestora.debug;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps a {@link DebugDataParser.MaskedDatumProvider} that's too costly to run at every F3 refresh, e.g. one that scans
+ * nearby blocks. It's only run once its interval has passed; in between, the values it gave last time are emitted
+ * again, so the line doesn't change or need rebuilding.
+ * <p>
+ * An async one runs on a virtual thread instead, and F3 shows whatever it last finished with, never waiting for it.
+ * At most one run is in flight at a time; a refresh that comes due meanwhile is skipped rather than queued. Once the
+ * values are older than twice the interval (and at least {@link #MIN_STALE_MILLIS}), {@link #getStaleSeconds()} says
+ * how old they are, and the line's rebuilt text is marked as stale; their age is never put in among the datums.
+ */
+public final class ScheduledProvider implements DebugDataParser.MaskedDatumProvider {
+    public static final long MIN_STALE_MILLIS = 1000;
+    private static final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // what one run emitted, and when it finished
+    private record Snapshot(Map<String, DatumValue> values, long finishedAt) { }
+
+    private final String lineKey;
+    private final DebugDataParser.MaskedDatumProvider provider;
+    private final long intervalNanos;
+    private final long staleNanos;
+    private final boolean async;
+    private final AtomicBoolean running = new AtomicBoolean();
+    // written by the async run, read by the render thread
+    private volatile Snapshot latest;
+    // render thread only
+    private long startedAt;
+    private boolean started;
+    private DebugDataParser.DatumMask everything;
+    private double staleSeconds;
+
+    /**
+     * @param intervalMillis  how long to keep the last values before running the provider again
+     * @param async           run it on a virtual thread instead of the render thread
+     */
+    ScheduledProvider(String lineKey, DebugDataParser.MaskedDatumProvider provider, long intervalMillis, boolean async) {
+        this.lineKey = lineKey;
+        this.provider = provider;
+        this.intervalNanos = Math.max(0, intervalMillis) * 1_000_000L;
+        this.staleNanos = Math.max(intervalMillis * 2, MIN_STALE_MILLIS) * 1_000_000L;
+        this.async = async;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /** How old the values last emitted were, in seconds, once they count as stale; 0 while they're fresh. */
+    public double getStaleSeconds() {
+        return staleSeconds;
+    }
+
+    @Override
+    public void provide(DebugDataParser.DatumMask requested, DebugDataParser.DatumEmitter datumEmitter) {
+        long now = System.nanoTime();
+        boolean due = !started || now - startedAt >= intervalNanos;
+
+        if (!async) {
+            if (due) {
+                started = true;
+                startedAt = now;
+                Map<String, DatumValue> values = new LinkedHashMap<>();
+                provider.provide(requested, recorder(values));
+                latest = new Snapshot(values, System.nanoTime());
+            }
+        } else if (due && running.compareAndSet(false, true)) {
+            started = true;
+            startedAt = now;
+            // the render thread's mask isn't safe to read from elsewhere; blocked datums are dropped on the way in
+            if (everything == null) everything = DebugDataParser.DatumMask.everything(lineKey);
+            DebugDataParser.DatumMask mask = everything;
+            executor.execute(() -> run(mask));
+        }
+
+        Snapshot snapshot = latest;
+        staleSeconds = 0;
+        if (snapshot == null) return;
+        for (Map.Entry<String, DatumValue> entry : snapshot.values().entrySet()) {
+            entry.getValue().emitTo(entry.getKey(), datumEmitter);
+        }
+        long age = now - snapshot.finishedAt();
+        if (async && age > staleNanos) staleSeconds = age / 1e9;
+    }
+
+    private void run(DebugDataParser.DatumMask mask) {
+        try {
+            Map<String, DatumValue> values = new LinkedHashMap<>();
+            provider.provide(mask, recorder(values));
+            latest = new Snapshot(values, System.nanoTime());
+        } catch (Exception e) {
+            System.err.println("Error in async provider for " + lineKey + ": " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // an emitter that only writes down what it's given, to be emitted for real on the render thread
+    private static DebugDataParser.DatumEmitter recorder(Map<String, DatumValue> values) {
+        return new DebugDataParser.DatumEmitter() {
+            @Override
+            public void emitText(String datumKey, String value) {
+                values.put(datumKey, DatumValue.text(value));
+            }
+
+            @Override
+            public void emitInt(String datumKey, long value, int minDigits, String unit) {
+                values.put(datumKey, DatumValue.ofLong(value, minDigits, unit));
+            }
+
+            @Override
+            public void emitDouble(String datumKey, double value, int fractionDigits, String unit) {
+                values.put(datumKey, DatumValue.ofDouble(value, fractionDigits, unit));
+            }
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.lestora.debug;
+
+import com.lestora.debug.recording.SessionFormat;
+import com.lestora.debug.recording.SessionWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Records every numeric datum into a {@link SessionWriter} while a session is running, sampled once per column
+ * refresh like {@link DatumHistory}. Column IDs in the file are the {@link DatumKeys} IDs, and each key is defined
+ * the first time it's sampled; a column keeps the type it was first seen with.
+ */
+public final class SessionRecorder {
+    private static long maxFileBytes = SessionWriter.DEFAULT_MAX_FILE_BYTES;
+    private static int maxFiles = SessionWriter.DEFAULT_MAX_FILES;
+    private static long maxDirectoryBytes = SessionWriter.DEFAULT_MAX_DIRECTORY_BYTES;
+
+    private static SessionWriter writer;
+    // by DatumKeys ID: 0 until defined, then SessionFormat.TYPE_INT or TYPE_FLOAT
+    private static byte[] types = new byte[64];
+
+    private SessionRecorder() { }
+
+    public static boolean isRecording() {
+        return writer != null;
+    }
+
+    /** The running session, or null. */
+    public static SessionWriter current() {
+        return writer;
+    }
+
+    /**
+     * Start a new session, e.g. "session-20260101-120000-001.lsr" in the given directory, or
+     * "session-20260101-120000-2-001.lsr" if one was already started that second.
+     *
+     * @return false if one is already running
+     */
+    public static boolean start(Path directory) throws IOException {
+        if (writer != null) return false;
+        String base = "session-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("uuuuMMdd-HHmmss"));
+        String name = base;
+        for (int n = 2; SessionWriter.exists(directory, name); n++) name = base + "-" + n;
+        writer = new SessionWriter(directory, name, maxFileBytes, maxFiles, maxDirectoryBytes);
+        Arrays.fill(types, (byte) 0);
+        return true;
+    }
+
+    /**
+     * Stop the running session without waiting for it; everything sampled so far is still written, and
+     * {@link SessionWriter#whenFinished()} completes once it has been.
+     *
+     * @return it, or null
+     */
+    public static SessionWriter stop() {
+        SessionWriter stopped = writer;
+        writer = null;
+        if (stopped != null) stopped.close();
+        return stopped;
+    }
+
+    /** Rotate to a new file once one would grow past this many bytes; applies to the next session. */
+    public static void setMaxFileBytes(long bytes) {
+        maxFileBytes = bytes;
+    }
+
+    /** How many of a session's newest files to keep; applies to the next session. */
+    public static void setMaxFiles(int files) {
+        maxFiles = files;
+    }
+
+    /** How much all the sessions in the directory may take together, oldest files going first; applies to the next session. */
+    public static void setMaxDirectoryBytes(long bytes) {
+        maxDirectoryBytes = bytes;
+    }
+
+    public static long getMaxDirectoryBytes() {
+        return maxDirectoryBytes;
+    }
+
+    static void record(DatumStore store, List<String> lineKeys, long nanos) {
+        if (writer == null) return;
+        if (writer.hasFailed()) {
+            stop();
+            return;
+        }
+
+        for (int i = 0; i < lineKeys.size(); i++) {
+            DatumStore.Line line = store.find(lineKeys.get(i));
+            if (line == null) continue;
+            for (int slot = 0; slot < line.slotCount(); slot++) {
+                int id = line.slotAt(slot);
+                DatumStore.Kind kind = store.kind(id);
+                if (kind != DatumStore.Kind.INT && kind != DatumStore.Kind.DOUBLE) continue;
+
+                byte type = typeOf(store, id, kind);
+                if (type == SessionFormat.TYPE_INT) {
+                    writer.offerInt(id, nanos, kind == DatumStore.Kind.INT ? store.getLong(id) : Math.round(store.getDouble(id)));
+                } else {
+                    writer.offerFloat(id, nanos, store.getDouble(id));
+                }
+            }
+        }
+    }
+
+    private static byte typeOf(DatumStore store, int id, DatumStore.Kind kind) {
+        if (id >= types.length) types = Arrays.copyOf(types, Math.max(types.length * 2, id + 1));
+        if (types[id] == 0) {
+            types[id] = kind == DatumStore.Kind.INT ? SessionFormat.TYPE_INT : SessionFormat.TYPE_FLOAT;
+            writer.define(id, DatumKeys.fullKey(id), store.unit(id), types[id]);
+        }
+        return types[id];
+    }
+}
@@ -0,0 +1,127 @@
+package com.lestora.debug;
+
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.gui.GuiGraphics;
+
+import java.util.*;
+
+/**
+ * Small graphs of a datum's recent {@link DatumHistory}, drawn right after the line that shows it, e.g. for
+ * "MinecraftData.Server.TickTimeMs". A line key such as "System.Memory" graphs the first of its datums that has
+ * history.
+ * <p>
+ * Every point is a one pixel wide {@link GuiGraphics#fill} into the same gui buffer, so all sparklines go out in the
+ * one batched pass {@link #render} makes each frame, rather than a draw call per point. They're meant as the cheap,
+ * targeted stand-in for vanilla's F3 charts, which are hidden while {@link #isHidingVanillaCharts()}.
+ */
+public final class Sparklines {
+    /** Samples per sparkline, one pixel each. */
+    public static final int WIDTH = 40;
+    private static final int HEIGHT = 7;
+    private static final int GAP = 3;
+    // same translucent grey vanilla puts behind each F3 line
+    private static final int BACKGROUND = -1873784752;
+    private static final int BAR = 0xFF6FD06F;
+
+    private static final Set<String> keys = new LinkedHashSet<>();
+    private static int[] ids = new int[0];
+    private static boolean dirty;
+    private static boolean hideVanillaCharts = true;
+
+    private Sparklines() { }
+
+    /** @param key  a "lineKey.datumKey" (e.g. "MinecraftData.Server.TickTimeMs") or a lineKey */
+    public static void add(String key) {
+        if (keys.add(key)) dirty = true;
+    }
+
+    public static void remove(String key) {
+        if (keys.remove(key)) dirty = true;
+    }
+
+    public static boolean isShown(String key) {
+        return keys.contains(key);
+    }
+
+    public static Set<String> getKeys() {
+        return Collections.unmodifiableSet(keys);
+    }
+
+    public static boolean isHidingVanillaCharts() {
+        return hideVanillaCharts;
+    }
+
+    public static void setHideVanillaCharts(boolean hide) {
+        hideVanillaCharts = hide;
+    }
+
+    /** Draw every sparkline whose line is on screen. Call once per frame, after both columns are drawn. */
+    public static void render(GuiGraphics graphics, Font font) {
+        if (keys.isEmpty()) return;
+        resolve();
+
+        for (int id : ids) {
+            if (id < 0 || DatumHistory.size(id) < 2) continue;
+
+            String lineKey = DatumKeys.lineKey(id);
+            int row = DebugDataParser.findLeftRow(lineKey);
+            boolean left = row >= 0;
+            if (!left) row = DebugDataParser.findRightRow(lineKey);
+            if (row < 0) continue;
+
+            String text = left ? DebugDataParser.getLeftRow(row) : DebugDataParser.getRightRow(row);
+            if (text == null) continue;
+            // left lines start at x = 2, right lines end 2 pixels from the edge; the graph goes on the inner side
+            int textWidth = font.width(text);
+            int x = left ? 2 + textWidth + GAP : graphics.guiWidth() - 2 - textWidth - GAP - WIDTH;
+            int y = 2 + row * font.lineHeight;
+            draw(graphics, id, x, y);
+        }
+    }
+
+    private static void draw(GuiGraphics graphics, int id, int x, int y) {
+        int count = Math.min(WIDTH, DatumHistory.size(id));
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int ago = 0; ago < count; ago++) {
+            double value = DatumHistory.value(id, ago);
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        double range = max - min;
+
+        graphics.fill(x - 1, y - 1, x + WIDTH + 1, y + HEIGHT + 1, BACKGROUND);
+        // newest sample on the right; a flat history sits in the middle
+        for (int ago = 0; ago < count; ago++) {
+            double value = DatumHistory.value(id, ago);
+            int height = range > 0 ? 1 + (int) Math.round((value - min) / range * (HEIGHT - 1)) : HEIGHT / 2 + 1;
+            int px = x + WIDTH - 1 - ago;
+            graphics.fill(px, y + HEIGHT - height, px + 1, y + HEIGHT, BAR);
+        }
+    }
+
+    // keys → DatumKeys IDs; keys that don't name a numeric datum yet are looked up again next frame
+    private static void resolve() {
+        if (dirty) {
+            ids = new int[keys.size()];
+            Arrays.fill(ids, -1);
+            dirty = false;
+        }
+        int i = 0;
+        for (String key : keys) {
+            if (ids[i] < 0) ids[i] = find(key);
+            i++;
+        }
+    }
+
+    private static int find(String key) {
+        int id = DatumKeys.findFullKey(key);
+        if (id >= 0) return id;
+
+        DatumStore.Line line = DebugDataParser.store.find(key);
+        if (line == null) return -1;
+        for (int slot = 0; slot < line.slotCount(); slot++) {
+            if (DatumHistory.size(line.slotAt(slot)) > 0) return line.slotAt(slot);
+        }
+        return -1;
+    }
+}
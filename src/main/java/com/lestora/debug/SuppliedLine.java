@@ -0,0 +1,58 @@
+package com.lestora.debug;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The provider behind a line whose datums were registered one at a time with
+ * {@link DebugDataParser#registerSupplier}. It only calls the suppliers of datums someone will see, and like any
+ * provider it's only run while F3 is being drawn and the line is in a column, so a mod doesn't have to work its
+ * values out every tick just in case.
+ */
+public final class SuppliedLine implements DebugDataParser.MaskedDatumProvider {
+    @FunctionalInterface
+    private interface Datum {
+        void emit(String datumKey, DebugDataParser.DatumEmitter datumEmitter);
+    }
+
+    private final String lineKey;
+    private final Map<String, Datum> datums = new LinkedHashMap<>();
+
+    SuppliedLine(String lineKey) {
+        this.lineKey = lineKey;
+    }
+
+    void addText(String datumKey, Supplier<String> supplier) {
+        datums.put(datumKey, (key, out) -> out.emitText(key, supplier.get()));
+    }
+
+    void addLong(String datumKey, LongSupplier supplier, String unit) {
+        datums.put(datumKey, (key, out) -> out.emitInt(key, supplier.getAsLong(), unit));
+    }
+
+    void addDouble(String datumKey, DoubleSupplier supplier, int fractionDigits, String unit) {
+        datums.put(datumKey, (key, out) -> out.emitDouble(key, supplier.getAsDouble(), fractionDigits, unit));
+    }
+
+    boolean remove(String datumKey) {
+        datums.remove(datumKey);
+        return datums.isEmpty();
+    }
+
+    @Override
+    public void provide(DebugDataParser.DatumMask requested, DebugDataParser.DatumEmitter datumEmitter) {
+        for (Map.Entry<String, Datum> entry : datums.entrySet()) {
+            String datumKey = entry.getKey();
+            if (!requested.wants(datumKey)) continue;
+            try {
+                entry.getValue().emit(datumKey, datumEmitter);
+            } catch (Exception e) {
+                // one bad supplier shouldn't take the rest of the line with it
+                System.err.println("Error in supplier for " + lineKey + "." + datumKey + ": " + e.getMessage());
+            }
+        }
+    }
+}
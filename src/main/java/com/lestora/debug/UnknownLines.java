@@ -0,0 +1,188 @@
+package com.lestora.debug;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads F3 lines nothing was registered for (e.g. ones another mod adds) with a generic "Label: value, value" parser,
+ * so their values still end up as datums, under "Unknown.Label". They're quarantined: kept out of both columns, and
+ * each label is only reported to the log the first time it shows up.
+ * <p>
+ * The shape is worked out once per label, from the first line seen: each comma-separated field becomes a datum,
+ * named after it when it looks like "name=value" or "name: value" (otherwise "Value1", "Value2", ...), and numbers
+ * keep their unit, e.g. "12.5 ms".
+ */
+public final class UnknownLines {
+    public static final String SECTION = "Unknown";
+    // beyond this many labels, e.g. a mod that puts a counter before its colon, lines are only counted
+    public static final int MAX_SHAPES = 64;
+    private static final int MAX_LABEL = 32;
+    private static final Pattern NAMED = Pattern.compile("^([A-Za-z][A-Za-z0-9 _]{0,23})\\s*[=:]\\s*(.*)$");
+    private static final Pattern NUMBER = Pattern.compile("^([-+]?\\d+(?:\\.(\\d+))?)\\s*([A-Za-z%/µ°]{0,8})$");
+
+    /** What one unknown label's lines look like, and how often they've been read. */
+    public static final class Shape implements DebugDataParser.MaskedLineParser {
+        public final String label;
+        public final String lineKey;
+        public final String example;
+        private final List<String> names = new ArrayList<>();
+        private long linesRead;
+
+        private Shape(String label, String lineKey, String example) {
+            this.label = label;
+            this.lineKey = lineKey;
+            this.example = example;
+        }
+
+        /** How many frames' worth of this line have gone past, changed or not. */
+        public long getLinesRead() {
+            return linesRead;
+        }
+
+        /** The datumKeys learned so far, e.g. ["Temperature", "Value2"]. */
+        public List<String> getDatumKeys() {
+            return Collections.unmodifiableList(names);
+        }
+
+        @Override
+        public void parse(String rawLine, DebugDataParser.DatumMask requested, DebugDataParser.DatumEmitter datumEmitter) {
+            String body = bodyOf(rawLine);
+            int field = 0;
+            for (String part : body.split(",")) {
+                part = part.trim();
+                if (part.isEmpty()) continue;
+
+                Matcher named = NAMED.matcher(part);
+                boolean isNamed = named.matches();
+                if (field == names.size()) {
+                    names.add(isNamed ? toKey(named.group(1)) : "Value" + (field + 1));
+                }
+                String datumKey = names.get(field++);
+                if (!requested.wants(datumKey)) continue;
+                emit(datumEmitter, datumKey, isNamed ? named.group(2).trim() : part);
+            }
+        }
+    }
+
+    private static final Map<String, Shape> shapes = new LinkedHashMap<>();
+    private static final List<String> lineKeys = new ArrayList<>();
+    private static final List<String> lineKeysView = Collections.unmodifiableList(lineKeys);
+    private static long linesRead;
+    private static long linesIgnored;
+    private static boolean reportedFull;
+
+    private UnknownLines() { }
+
+    /**
+     * The shape for an unrecognised line, learned (and reported once) if its label is new.
+     *
+     * @param after  the lineKey of the line before it, for the report
+     * @return null once {@link #MAX_SHAPES} labels are known and this isn't one of them
+     */
+    public static Shape shapeOf(String line, String after) {
+        String label = labelOf(line);
+        Shape shape = shapes.get(label);
+        if (shape == null) {
+            if (shapes.size() >= MAX_SHAPES) {
+                linesIgnored++;
+                if (!reportedFull) {
+                    reportedFull = true;
+                    System.err.println("Lestora Debug. Over " + MAX_SHAPES + " unknown F3 lines, ignoring new ones such as: " + line);
+                }
+                return null;
+            }
+            String lineKey = SECTION + "." + toKey(label);
+            // e.g. "Wetness level" and "wetness-level"
+            for (int n = 2; lineKeys.contains(lineKey); n++) lineKey = SECTION + "." + toKey(label) + n;
+            shape = new Shape(label, lineKey, line);
+            shapes.put(label, shape);
+            lineKeys.add(shape.lineKey);
+            System.err.println("Lestora Debug. New line found after " + after + ", reading it as " + shape.lineKey + ": " + line);
+        }
+        shape.linesRead++;
+        linesRead++;
+        return shape;
+    }
+
+    public static boolean isUnknown(String lineKey) {
+        return lineKey.startsWith(SECTION + ".") && lineKeys.contains(lineKey);
+    }
+
+    /** Every "Unknown.*" lineKey learned so far. */
+    public static List<String> getLineKeys() {
+        return lineKeysView;
+    }
+
+    public static Collection<Shape> getShapes() {
+        return Collections.unmodifiableCollection(shapes.values());
+    }
+
+    /** Unknown lines read, across all labels, counting every frame. */
+    public static long getLinesRead() {
+        return linesRead;
+    }
+
+    /** Unknown lines dropped because {@link #MAX_SHAPES} labels were already known. */
+    public static long getLinesIgnored() {
+        return linesIgnored;
+    }
+
+    // e.g. "Wetness" from "Wetness: 0.4, dripping" or from "Wetness 0.4"
+    private static String labelOf(String line) {
+        int colon = line.indexOf(':');
+        String label;
+        if (colon > 0) {
+            label = line.substring(0, colon);
+        } else {
+            int end = 0;
+            while (end < line.length() && (Character.isLetter(line.charAt(end)) || line.charAt(end) == ' ')) end++;
+            label = line.substring(0, end);
+        }
+        label = label.trim();
+        return label.length() > MAX_LABEL ? label.substring(0, MAX_LABEL) : label;
+    }
+
+    private static String bodyOf(String line) {
+        int colon = line.indexOf(':');
+        if (colon > 0) return line.substring(colon + 1);
+        int end = 0;
+        while (end < line.length() && (Character.isLetter(line.charAt(end)) || line.charAt(end) == ' ')) end++;
+        return line.substring(end);
+    }
+
+    // "wetness level" → "WetnessLevel"; "Line" if nothing's left
+    private static String toKey(String text) {
+        StringBuilder key = new StringBuilder();
+        boolean upper = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                upper = true;
+                continue;
+            }
+            key.append(upper ? Character.toUpperCase(c) : c);
+            upper = false;
+        }
+        return key.isEmpty() ? "Line" : key.toString();
+    }
+
+    private static void emit(DebugDataParser.DatumEmitter datumEmitter, String datumKey, String value) {
+        Matcher number = NUMBER.matcher(value);
+        if (!number.matches()) {
+            datumEmitter.emitText(datumKey, value);
+            return;
+        }
+        String unit = number.group(3).isEmpty() ? null : number.group(3);
+        try {
+            if (number.group(2) == null) {
+                datumEmitter.emitInt(datumKey, Long.parseLong(number.group(1)), unit);
+            } else {
+                datumEmitter.emitDouble(datumKey, Double.parseDouble(number.group(1)), number.group(2).length(), unit);
+            }
+        } catch (NumberFormatException e) {
+            // too many digits for a long
+            datumEmitter.emitText(datumKey, value);
+        }
+    }
+}
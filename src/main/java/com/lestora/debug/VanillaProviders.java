@@ -0,0 +1,151 @@
+package com.lestora.debug;
+
+import net.minecraft.client.CloudStatus;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.Options;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.server.IntegratedServer;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LightLayer;
+
+import java.util.*;
+
+/**
+ * Providers for the built-in lines that can be read straight from client state.
+ * Each one emits the same datumKeys (and the same formatting and units) as the line's parser in {@link LestoraDebugMod},
+ * so the existing rebuilders are reused as-is. Numbers go in as numbers, so history, sparklines and recordings
+ * pick them up, and values nobody will see aren't worked out where that costs anything.
+ */
+public final class VanillaProviders {
+    private VanillaProviders() { }
+
+    public static void register() {
+        DebugDataParser.registerProvider("MinecraftData.Renderer",   VanillaProviders::renderer);
+        DebugDataParser.registerProvider("MinecraftData.Dimension",  VanillaProviders::dimension);
+        DebugDataParser.registerProvider("LocationDetails.Position", VanillaProviders::position);
+        DebugDataParser.registerProvider("LocationDetails.Block",    VanillaProviders::block);
+        DebugDataParser.registerProvider("LocationDetails.Chunk",    VanillaProviders::chunk);
+        DebugDataParser.registerProvider("LocationDetails.Facing",   VanillaProviders::facing);
+        DebugDataParser.registerProvider("LocationDetails.Light",    VanillaProviders::light);
+    }
+
+    private static void renderer(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Minecraft mc = Minecraft.getInstance();
+        Options options = mc.options;
+        emit.emitInt("FPS", mc.getFps(), "fps");
+
+        int limit = options.framerateLimit().get();
+        if (limit == 260) {
+            emit.emitText("TickTime", "inf");
+        } else {
+            emit.emitInt("TickTime", limit, "fps");
+        }
+
+        if (want.wants("Options")) {
+            // e.g. "vsync fancy fancy-clouds"
+            StringBuilder sb = new StringBuilder();
+            if (options.enableVsync().get()) sb.append("vsync ");
+            sb.append(options.graphicsMode().get());
+            CloudStatus clouds = options.cloudStatus().get();
+            if (clouds != CloudStatus.OFF) sb.append(clouds == CloudStatus.FAST ? " fast-clouds" : " fancy-clouds");
+            emit.emitText("Options", sb.toString());
+        }
+
+        emit.emitInt("BiomeBlend", options.biomeBlendRadius().get(), null);
+
+        double gpu = mc.getGpuUtilization();
+        if (gpu > 0) emit.emitInt("GPU", Math.round(Math.min(gpu, 100)), "%");
+    }
+
+    private static void dimension(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Minecraft mc = Minecraft.getInstance();
+        ClientLevel level = mc.level;
+        if (level == null) return;
+
+        if (want.wants("ID")) emit.emitText("ID", level.dimension().location().toString());
+
+        if (want.wants("ForceLoadedChunks")) {
+            IntegratedServer server = mc.getSingleplayerServer();
+            ServerLevel serverLevel = server == null ? null : server.getLevel(level.dimension());
+            emit.emitInt("ForceLoadedChunks", serverLevel == null ? 0 : serverLevel.getForcedChunks().size(), null);
+        }
+    }
+
+    private static void position(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Entity camera = Minecraft.getInstance().getCameraEntity();
+        if (camera == null) return;
+
+        emit.emitDouble("X", camera.getX(), 3, null);
+        emit.emitDouble("Y", camera.getY(), 5, null);
+        emit.emitDouble("Z", camera.getZ(), 3, null);
+    }
+
+    private static void block(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Entity camera = Minecraft.getInstance().getCameraEntity();
+        if (camera == null) return;
+
+        BlockPos pos = camera.blockPosition();
+        emit.emitInt("WorldX", pos.getX(), null);
+        emit.emitInt("WorldY", pos.getY(), null);
+        emit.emitInt("WorldZ", pos.getZ(), null);
+        emit.emitInt("RelativeX", pos.getX() & 15, null);
+        emit.emitInt("RelativeY", pos.getY() & 15, null);
+        emit.emitInt("RelativeZ", pos.getZ() & 15, null);
+    }
+
+    private static void chunk(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Entity camera = Minecraft.getInstance().getCameraEntity();
+        if (camera == null) return;
+
+        BlockPos pos = camera.blockPosition();
+        ChunkPos chunk = new ChunkPos(pos);
+        emit.emitInt("WorldX", chunk.x, null);
+        emit.emitInt("WorldY", SectionPos.blockToSectionCoord(pos.getY()), null);
+        emit.emitInt("WorldZ", chunk.z, null);
+        emit.emitInt("RelativeX", chunk.getRegionLocalX(), null);
+        emit.emitInt("RelativeZ", chunk.getRegionLocalZ(), null);
+        if (want.wants("RegionFile")) emit.emitText("RegionFile", "r." + chunk.getRegionX() + "." + chunk.getRegionZ() + ".mca");
+    }
+
+    private static void facing(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Entity camera = Minecraft.getInstance().getCameraEntity();
+        if (camera == null) return;
+
+        Direction direction = camera.getDirection();
+        emit.emitText("Compass", direction.getName());
+        switch (direction) {
+            case NORTH -> emit.emitText("Toward", "negative Z");
+            case SOUTH -> emit.emitText("Toward", "positive Z");
+            case WEST  -> emit.emitText("Toward", "negative X");
+            case EAST  -> emit.emitText("Toward", "positive X");
+            default -> { }
+        }
+        // one datum for both angles, the way the line's parser has it
+        if (want.wants("HeadYaw")) {
+            emit.emitText("HeadYaw", String.format(Locale.ROOT, "%.1f / %.1f",
+                    Mth.wrapDegrees(camera.getYRot()), Mth.wrapDegrees(camera.getXRot())));
+        }
+    }
+
+    private static void light(DebugDataParser.DatumMask want, DebugDataParser.DatumEmitter emit) {
+        Minecraft mc = Minecraft.getInstance();
+        Entity camera = mc.getCameraEntity();
+        ClientLevel level = mc.level;
+        if (camera == null || level == null) return;
+
+        BlockPos pos = camera.blockPosition();
+        if (!level.hasChunkAt(pos)) {
+            emit.emitText("Waiting", "Waiting for chunk...");
+            return;
+        }
+        if (want.wants("Total")) emit.emitInt("Total", level.getChunkSource().getLightEngine().getRawBrightness(pos, 0), null);
+        if (want.wants("Sky"))   emit.emitInt("Sky",   level.getBrightness(LightLayer.SKY, pos), null);
+        if (want.wants("Block")) emit.emitInt("Block", level.getBrightness(LightLayer.BLOCK, pos), null);
+    }
+}
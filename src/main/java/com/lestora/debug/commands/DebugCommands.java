@@ -1,8 +1,18 @@
 package com.lestora.debug.commands;
 
+import com.lestora.debug.DatumHistory;
+import com.lestora.debug.DatumKeys;
 import com.lestora.debug.DebugDataParser;
+import com.lestora.debug.HandlerProfiler;
+import com.lestora.debug.RefreshGovernor;
+import com.lestora.debug.SessionRecorder;
+import com.lestora.debug.Sparklines;
+import com.lestora.debug.UnknownLines;
+import com.lestora.debug.recording.SessionWriter;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import net.minecraft.client.Minecraft;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.network.chat.Component;
@@ -11,6 +21,7 @@ import net.minecraftforge.client.event.RegisterClientCommandsEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -26,6 +37,18 @@ public class DebugCommands {
         addCommand("listIgnoredKeys", root, DebugCommands::listIgnoredKeys);
         addCommand("ignoreKey",       root, DebugCommands::ignoreKey);
         addCommand("allowKey",        root, DebugCommands::allowKey);
+        addCommand("lineCacheStats",  root, DebugCommands::lineCacheStats);
+        addCommand("refreshRate",     root, DebugCommands::refreshRate);
+        addCommand("refreshMode",     root, DebugCommands::refreshMode);
+        addCommand("liveKey",         root, DebugCommands::liveKey);
+        addCommand("provider",        root, DebugCommands::provider);
+        addCommand("history",         root, DebugCommands::history);
+        addCommand("historySize",     root, DebugCommands::historySize);
+        addCommand("sparkline",       root, DebugCommands::sparkline);
+        addCommand("vanillaCharts",   root, DebugCommands::vanillaCharts);
+        addCommand("record",          root, DebugCommands::record);
+        addCommand("profile",         root, DebugCommands::profile);
+        addCommand("unknownLines",    root, DebugCommands::unknownLines);
 
         event.getDispatcher().register(Commands.literal("lestora").then(root));
     }
@@ -188,4 +211,314 @@ public class DebugCommands {
                 })
         );
     }
-}
\ No newline at end of file
+
+    private static void lineCacheStats(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> {
+            long hits = DebugDataParser.getLineCacheHits();
+            long misses = DebugDataParser.getLineCacheMisses();
+            long total = hits + misses;
+            String ratio = total == 0 ? "n/a" : String.format(Locale.ROOT, "%.1f%%", hits * 100.0 / total);
+            ctx.getSource().sendSuccess(() ->
+                    Component.literal("Unchanged F3 lines reused: " + hits + " hits, " + misses + " misses (" + ratio + ")"), false
+            );
+            return 1;
+        });
+    }
+
+    private static void refreshRate(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> {
+            ctx.getSource().sendSuccess(() -> Component.literal(String.format(Locale.ROOT,
+                    "F3 refresh: %s, target %d Hz, currently %.1f Hz (frame time %.1f ms, budget %.1f ms)",
+                    RefreshGovernor.getMode().name().toLowerCase(Locale.ROOT), RefreshGovernor.getTargetHz(),
+                    RefreshGovernor.getCurrentHz(), RefreshGovernor.getSmoothedFrameMs(), RefreshGovernor.getFrameBudgetMs())), false);
+            return 1;
+        });
+        root.then(Commands.argument("hz", IntegerArgumentType.integer(RefreshGovernor.MIN_HZ, RefreshGovernor.MAX_HZ))
+            .executes(ctx -> {
+                int hz = IntegerArgumentType.getInteger(ctx, "hz");
+                RefreshGovernor.setTargetHz(hz);
+                ctx.getSource().sendSuccess(() -> Component.literal("F3 now refreshes up to " + hz + " times per second"), false);
+                return 1;
+            })
+        );
+    }
+
+    private static void refreshMode(LiteralArgumentBuilder<CommandSourceStack> root) {
+        for (RefreshGovernor.Mode mode : RefreshGovernor.Mode.values()) {
+            String name = mode.name().toLowerCase(Locale.ROOT);
+            root.then(Commands.literal(name).executes(ctx -> {
+                RefreshGovernor.setMode(mode);
+                ctx.getSource().sendSuccess(() -> Component.literal("F3 refresh mode is now " + name), false);
+                return 1;
+            }));
+        }
+    }
+
+    private static void liveKey(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.then(Commands.argument("lineKey", StringArgumentType.greedyString())
+            .suggests((ctx, builder) -> {
+                List<String> all = new ArrayList<>();
+                for (String lineKey : DebugDataParser.leftLines) {
+                    if (!"<br>".equals(lineKey)) all.add(lineKey);
+                }
+                for (String lineKey : DebugDataParser.rightLines) {
+                    if (!"<br>".equals(lineKey)) all.add(lineKey);
+                }
+
+                String remaining = builder.getRemaining().toLowerCase(Locale.ROOT);
+                for (String s : all) {
+                    if (s.toLowerCase(Locale.ROOT).contains(remaining)) {
+                        builder.suggest(s);
+                    }
+                }
+                return builder.buildFuture();
+            })
+            .executes(ctx -> {
+                String lineKey = StringArgumentType.getString(ctx, "lineKey");
+                if (RefreshGovernor.liveKeys.remove(lineKey)) {
+                    ctx.getSource().sendSuccess(() -> Component.literal(lineKey + " now refreshes with the rest of F3"), false);
+                } else {
+                    RefreshGovernor.liveKeys.add(lineKey);
+                    ctx.getSource().sendSuccess(() -> Component.literal(lineKey + " now updates every frame"), false);
+                }
+                RefreshGovernor.forceRefresh();
+                return 1;
+            })
+        );
+    }
+
+    private static void provider(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.then(Commands.argument("lineKey", StringArgumentType.greedyString())
+            .suggests((ctx, builder) -> {
+                String remaining = builder.getRemaining().toLowerCase(Locale.ROOT);
+                for (String s : DebugDataParser.getProviderKeys()) {
+                    if (s.toLowerCase(Locale.ROOT).contains(remaining)) {
+                        builder.suggest(s);
+                    }
+                }
+                return builder.buildFuture();
+            })
+            .executes(ctx -> {
+                String lineKey = StringArgumentType.getString(ctx, "lineKey");
+                boolean enable = !DebugDataParser.isProvided(lineKey);
+                if (!DebugDataParser.useProvider(lineKey, enable)) {
+                    ctx.getSource().sendFailure(Component.literal("There's no provider for " + lineKey));
+                    return 0;
+                }
+                ctx.getSource().sendSuccess(() -> Component.literal(enable
+                        ? lineKey + " is now read straight from the game"
+                        : lineKey + " is now parsed from vanilla's F3 text again"), false);
+                return 1;
+            })
+        );
+    }
+
+    private static void history(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.then(Commands.argument("key", StringArgumentType.word())
+            .suggests((ctx, builder) -> {
+                String remaining = builder.getRemaining().toLowerCase(Locale.ROOT);
+                for (int id = 0; id < DatumKeys.count(); id++) {
+                    if (DatumHistory.size(id) == 0) continue;
+                    String fullKey = DatumKeys.fullKey(id);
+                    if (fullKey.toLowerCase(Locale.ROOT).contains(remaining)) {
+                        builder.suggest(fullKey);
+                    }
+                }
+                return builder.buildFuture();
+            })
+            .executes(ctx -> showHistory(ctx.getSource(), StringArgumentType.getString(ctx, "key"), 10))
+            .then(Commands.argument("seconds", IntegerArgumentType.integer(1, 3600))
+                .executes(ctx -> showHistory(ctx.getSource(), StringArgumentType.getString(ctx, "key"),
+                        IntegerArgumentType.getInteger(ctx, "seconds")))
+            )
+        );
+    }
+
+    private static int showHistory(CommandSourceStack source, String key, int seconds) {
+        int id = DatumKeys.findFullKey(key);
+        DatumHistory.Window window = id < 0 ? null : DatumHistory.window(id, seconds * 1000L, new DatumHistory.Window());
+        if (window == null) {
+            source.sendFailure(Component.literal("No history for " + key));
+            return 0;
+        }
+        if (window.count == 0) {
+            source.sendFailure(Component.literal("No samples of " + key + " in the last " + seconds + "s"));
+            return 0;
+        }
+        String unit = DebugDataParser.store.unit(id);
+        source.sendSuccess(() -> Component.literal(String.format(Locale.ROOT,
+                "%s over %ds (%d samples): min %.2f, max %.2f, mean %.2f, stddev %.2f%s",
+                key, seconds, window.count, window.min, window.max, window.mean, window.stddev,
+                unit == null ? "" : " " + unit)), false);
+        return 1;
+    }
+
+    private static void historySize(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> {
+            ctx.getSource().sendSuccess(() -> Component.literal(
+                    "Each numeric datum keeps its last " + DatumHistory.getCapacity() + " samples"), false);
+            return 1;
+        });
+        root.then(Commands.argument("samples", IntegerArgumentType.integer(DatumHistory.MIN_CAPACITY, DatumHistory.MAX_CAPACITY))
+            .executes(ctx -> {
+                int samples = IntegerArgumentType.getInteger(ctx, "samples");
+                DatumHistory.setCapacity(samples);
+                ctx.getSource().sendSuccess(() -> Component.literal(
+                        "Each numeric datum now keeps its last " + samples + " samples (history cleared)"), false);
+                return 1;
+            })
+        );
+    }
+
+    private static void sparkline(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.then(Commands.argument("key", StringArgumentType.word())
+            .suggests((ctx, builder) -> {
+                List<String> all = new ArrayList<>(Sparklines.getKeys());
+                for (int id = 0; id < DatumKeys.count(); id++) {
+                    if (DatumHistory.size(id) > 0) all.add(DatumKeys.fullKey(id));
+                }
+
+                String remaining = builder.getRemaining().toLowerCase(Locale.ROOT);
+                for (String s : all) {
+                    if (s.toLowerCase(Locale.ROOT).contains(remaining)) {
+                        builder.suggest(s);
+                    }
+                }
+                return builder.buildFuture();
+            })
+            .executes(ctx -> {
+                String key = StringArgumentType.getString(ctx, "key");
+                if (Sparklines.isShown(key)) {
+                    Sparklines.remove(key);
+                    ctx.getSource().sendSuccess(() -> Component.literal("Removed the sparkline for " + key), false);
+                } else {
+                    Sparklines.add(key);
+                    ctx.getSource().sendSuccess(() -> Component.literal("Showing a sparkline for " + key), false);
+                }
+                return 1;
+            })
+        );
+    }
+
+    private static void vanillaCharts(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> {
+            boolean hide = !Sparklines.isHidingVanillaCharts();
+            Sparklines.setHideVanillaCharts(hide);
+            ctx.getSource().sendSuccess(() -> Component.literal(hide
+                    ? "Vanilla's F3 pie and charts are now hidden"
+                    : "Vanilla's F3 pie and charts can be shown again (F3 + 1/2/3)"), false);
+            return 1;
+        });
+    }
+
+    private static void record(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> {
+            SessionWriter writer = SessionRecorder.current();
+            if (writer == null) {
+                ctx.getSource().sendSuccess(() -> Component.literal("Not recording"), false);
+            } else {
+                ctx.getSource().sendSuccess(() -> Component.literal(describe("Recording", writer)), false);
+            }
+            return 1;
+        });
+        root.then(Commands.literal("start").executes(ctx -> {
+            var directory = Minecraft.getInstance().gameDirectory.toPath().resolve("lestora-sessions");
+            try {
+                if (!SessionRecorder.start(directory)) {
+                    ctx.getSource().sendFailure(Component.literal("Already recording " + SessionRecorder.current().getSessionName()));
+                    return 0;
+                }
+            } catch (IOException e) {
+                ctx.getSource().sendFailure(Component.literal("Couldn't start recording: " + e.getMessage()));
+                return 0;
+            }
+            String name = SessionRecorder.current().getSessionName();
+            ctx.getSource().sendSuccess(() -> Component.literal("Recording F3 to " + directory.resolve(name) + "-*.lsr"
+                    + " (the oldest recordings there are deleted past " + SessionRecorder.getMaxDirectoryBytes() / (1024 * 1024) + " MB)"), false);
+            return 1;
+        }));
+        root.then(Commands.literal("stop").executes(ctx -> {
+            SessionWriter writer = SessionRecorder.stop();
+            if (writer == null) {
+                ctx.getSource().sendFailure(Component.literal("Not recording"));
+                return 0;
+            }
+            // the writer still has to drain its queue; report back on the client thread once it has
+            var source = ctx.getSource();
+            writer.whenFinished().thenAcceptAsync(
+                    done -> source.sendSuccess(() -> Component.literal(describe("Recorded", done)), false),
+                    Minecraft.getInstance()::execute);
+            return 1;
+        }));
+    }
+
+    private static void profile(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> showProfile(ctx.getSource(), 5));
+        root.then(Commands.argument("count", IntegerArgumentType.integer(1, 50))
+            .executes(ctx -> showProfile(ctx.getSource(), IntegerArgumentType.getInteger(ctx, "count")))
+        );
+        root.then(Commands.literal("on").executes(ctx -> {
+            HandlerProfiler.setEnabled(true);
+            ctx.getSource().sendSuccess(() -> Component.literal("Profiling F3; see the top of the right column"), false);
+            return 1;
+        }));
+        root.then(Commands.literal("off").executes(ctx -> {
+            HandlerProfiler.setEnabled(false);
+            ctx.getSource().sendSuccess(() -> Component.literal("Stopped profiling F3"), false);
+            return 1;
+        }));
+        root.then(Commands.literal("reset").executes(ctx -> {
+            HandlerProfiler.reset();
+            ctx.getSource().sendSuccess(() -> Component.literal("Profile timings cleared"), false);
+            return 1;
+        }));
+    }
+
+    private static int showProfile(CommandSourceStack source, int count) {
+        if (HandlerProfiler.getTimers().isEmpty()) {
+            source.sendFailure(Component.literal(HandlerProfiler.isEnabled()
+                    ? "Nothing timed yet; open F3 first"
+                    : "Not profiling; use /lestora debug profile on"));
+            return 0;
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("F3 timings (mean / p99 over the last " + HandlerProfiler.RECENT + " calls):");
+        for (HandlerProfiler.Timer timer : HandlerProfiler.getTimers()) {
+            if (timer.stage == HandlerProfiler.Stage.COLUMN) lines.add("  " + timer.key + " column: " + HandlerProfiler.describe(timer));
+        }
+        lines.add("Slowest by mean:");
+        for (HandlerProfiler.Timer timer : HandlerProfiler.slowest(count, false)) {
+            lines.add("  " + timer.label() + ": " + HandlerProfiler.describe(timer) + " (" + timer.count() + " calls)");
+        }
+        lines.add("Slowest by p99:");
+        for (HandlerProfiler.Timer timer : HandlerProfiler.slowest(count, true)) {
+            lines.add("  " + timer.label() + ": " + HandlerProfiler.describe(timer) + " (" + timer.count() + " calls)");
+        }
+        for (String line : lines) source.sendSuccess(() -> Component.literal(line), false);
+        return 1;
+    }
+
+    private static void unknownLines(LiteralArgumentBuilder<CommandSourceStack> root) {
+        root.executes(ctx -> {
+            var shapes = UnknownLines.getShapes();
+            if (shapes.isEmpty()) {
+                ctx.getSource().sendSuccess(() -> Component.literal("Every F3 line so far was recognised"), false);
+                return 1;
+            }
+            List<String> lines = new ArrayList<>();
+            lines.add(shapes.size() + " unknown F3 line(s), read " + UnknownLines.getLinesRead() + " times"
+                    + (UnknownLines.getLinesIgnored() > 0 ? " (" + UnknownLines.getLinesIgnored() + " ignored past the limit)" : "") + ":");
+            for (UnknownLines.Shape shape : shapes) {
+                lines.add("  " + shape.lineKey + " " + shape.getDatumKeys() + " x" + shape.getLinesRead() + ", e.g. " + shape.example);
+            }
+            for (String line : lines) ctx.getSource().sendSuccess(() -> Component.literal(line), false);
+            return 1;
+        });
+    }
+
+    private static String describe(String verb, SessionWriter writer) {
+        return String.format(Locale.ROOT, "%s %s: %d samples (%d dropped), %.1f KB in %d file(s)%s",
+                verb, writer.getSessionName(), writer.getSamplesWritten(), writer.getSamplesDropped(),
+                writer.getBytesWritten() / 1024.0, writer.getFileCount(), writer.hasFailed() ? ", stopped by an error" : "");
+    }
+}
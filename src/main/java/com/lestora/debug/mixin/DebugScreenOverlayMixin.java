@@ -1,29 +1,147 @@
 package com.lestora.debug.mixin;
 
 import com.lestora.debug.DebugDataParser;
+import com.lestora.debug.HandlerProfiler;
+import com.lestora.debug.RefreshGovernor;
+import com.lestora.debug.Sparklines;
+import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.DebugScreenOverlay;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.NaturalSpawner;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.RandomState;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.FluidState;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Mixin(DebugScreenOverlay.class)
 public class DebugScreenOverlayMixin {
+    @Shadow @Final
+    private Font font;
+    @Shadow
+    private boolean renderProfilerChart;
+    @Shadow
+    private boolean renderFpsCharts;
+    @Shadow
+    private boolean renderNetworkCharts;
+
+    @Shadow
+    private String getServerChunkStats() { throw new AssertionError(); }
+
+    @Shadow
+    private LevelChunk getServerChunk() { throw new AssertionError(); }
+
+    // when each column started this frame, for HandlerProfiler; 0 while it's off
+    @Unique
+    private long lestora$leftStarted;
+    @Unique
+    private long lestora$rightStarted;
+
+    // Between refreshes (or once everything vanilla would show is blocked), hand back the cached column so vanilla
+    // doesn't build its strings at all.
+    @Inject(method = "getGameInformation", at = @At("HEAD"), cancellable = true)
+    private void beforeGetGameInformation(CallbackInfoReturnable<List<String>> cir) {
+        lestora$leftStarted = HandlerProfiler.start();
+        RefreshGovernor.frame();
+        List<String> cached = DebugDataParser.getCachedLeftValues();
+        if (cached != null) {
+            cir.setReturnValue(cached);
+            HandlerProfiler.stop(HandlerProfiler.Stage.COLUMN, "Left", lestora$leftStarted);
+        }
+    }
 
     @Inject(method = "getGameInformation", at = @At("RETURN"), cancellable = true)
     private void onGetGameInformation(CallbackInfoReturnable<List<String>> cir) {
-        DebugDataParser.parse(cir.getReturnValue());
-        cir.setReturnValue(DebugDataParser.getLeftValues());
+        cir.setReturnValue(DebugDataParser.updateLeftValues(cir.getReturnValue()));
+        HandlerProfiler.stop(HandlerProfiler.Stage.COLUMN, "Left", lestora$leftStarted);
+    }
+
+    @Inject(method = "getSystemInformation", at = @At("HEAD"), cancellable = true)
+    private void beforeGetSystemInformation(CallbackInfoReturnable<List<String>> cir) {
+        lestora$rightStarted = HandlerProfiler.start();
+        List<String> cached = DebugDataParser.getCachedRightValues();
+        if (cached != null) {
+            cir.setReturnValue(cached);
+            HandlerProfiler.stop(HandlerProfiler.Stage.COLUMN, "Right", lestora$rightStarted);
+        }
     }
 
     @Inject(method = "getSystemInformation", at = @At("RETURN"), cancellable = true)
     private void onGetSystemInformation(CallbackInfoReturnable<List<String>> cir) {
-        DebugDataParser.parse(cir.getReturnValue());
-        cir.setReturnValue(DebugDataParser.getRightValues());
+        cir.setReturnValue(DebugDataParser.updateRightValues(cir.getReturnValue()));
+        HandlerProfiler.stop(HandlerProfiler.Stage.COLUMN, "Right", lestora$rightStarted);
+    }
+
+    // The expensive parts of a column, skipped while the lines they feed are blocked. Vanilla builds each column in one
+    // method, so the rest of a partly blocked column is still generated. require = 0 keeps a renamed call from
+    // failing the game; the line is then just generated and hidden like before.
+
+    @Redirect(method = "getGameInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/client/gui/components/DebugScreenOverlay;getServerChunkStats()Ljava/lang/String;"))
+    private String skipBlockedServerChunkStats(DebugScreenOverlay overlay) {
+        if (DebugDataParser.isLineBlocked("MinecraftData.ChunksServer")) return null;
+        return getServerChunkStats();
+    }
+
+    // feeds both "SH" and "Local Difficulty:"
+    @Redirect(method = "getGameInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/client/gui/components/DebugScreenOverlay;getServerChunk()Lnet/minecraft/world/level/chunk/LevelChunk;"))
+    private LevelChunk skipBlockedServerChunk(DebugScreenOverlay overlay) {
+        if (DebugDataParser.isLineBlocked("LocationDetails.HeightmapServer")
+                && DebugDataParser.isLineBlocked("LocationDetails.LocalDifficulty")) return null;
+        return getServerChunk();
+    }
+
+    @Redirect(method = "getGameInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/chunk/ChunkGenerator;addDebugScreenInfo(Ljava/util/List;Lnet/minecraft/world/level/levelgen/RandomState;Lnet/minecraft/core/BlockPos;)V"))
+    private void skipBlockedNoiseRouter(ChunkGenerator generator, List<String> lines, RandomState random, BlockPos pos) {
+        if (!DebugDataParser.isLineBlocked("LocationDetails.NoiseRouter")) generator.addDebugScreenInfo(lines, random, pos);
+    }
+
+    @Redirect(method = "getGameInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/biome/BiomeSource;addDebugInfo(Ljava/util/List;Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/biome/Climate$Sampler;)V"))
+    private void skipBlockedBiomeBuilder(BiomeSource source, List<String> lines, BlockPos pos, Climate.Sampler sampler) {
+        if (!DebugDataParser.isLineBlocked("LocationDetails.BiomeBuilder")) source.addDebugInfo(lines, pos, sampler);
+    }
+
+    @Redirect(method = "getGameInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/server/level/ServerChunkCache;getLastSpawnState()Lnet/minecraft/world/level/NaturalSpawner$SpawnState;"))
+    private NaturalSpawner.SpawnState skipBlockedMobCaps(ServerChunkCache chunks) {
+        if (DebugDataParser.isLineBlocked("LocationDetails.MobCaps")) return null;
+        return chunks.getLastSpawnState();
+    }
+
+    @Redirect(method = "getSystemInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/block/state/BlockState;getTags()Ljava/util/stream/Stream;"))
+    private Stream<TagKey<Block>> skipBlockedBlockTags(BlockState state) {
+        if (DebugDataParser.isLineBlocked("TargetBlock.Tags")) return Stream.empty();
+        return state.getTags();
+    }
+
+    @Redirect(method = "getSystemInformation", require = 0, at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/level/material/FluidState;getTags()Ljava/util/stream/Stream;"))
+    private Stream<TagKey<Fluid>> skipBlockedFluidTags(FluidState state) {
+        if (DebugDataParser.isLineBlocked("TargetFluid.Tags")) return Stream.empty();
+        return state.getTags();
     }
 
     // This removes the forced two lines on the left of the F3 menu that says Debug charts and For help...
@@ -39,5 +157,17 @@ public class DebugScreenOverlayMixin {
         );
     }
 
-    // ToDo: Disable Pie + Charts
+    // The sparklines stand in for vanilla's pie and charts, which cost far more to draw
+    @Inject(method = "render", at = @At("HEAD"))
+    private void hideVanillaCharts(GuiGraphics guiGraphics, CallbackInfo ci) {
+        if (!Sparklines.isHidingVanillaCharts()) return;
+        renderProfilerChart = false;
+        renderFpsCharts = false;
+        renderNetworkCharts = false;
+    }
+
+    @Inject(method = "render", at = @At("RETURN"))
+    private void renderSparklines(GuiGraphics guiGraphics, CallbackInfo ci) {
+        Sparklines.render(guiGraphics, font);
+    }
 }
\ No newline at end of file
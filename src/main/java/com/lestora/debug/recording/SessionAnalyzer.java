@@ -0,0 +1,365 @@
+package com.lestora.debug.recording;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Batch analysis of recorded sessions, run outside the game with nothing but the mod jar on the classpath:
+ * <pre>
+ *   java -cp lestora_debug-&lt;version&gt;.jar com.lestora.debug.recording.SessionAnalyzer [options] &lt;file or directory&gt;...
+ *
+ *   --out DIR              where to write the summaries (the current directory by default)
+ *   --format csv|json|both (both by default)
+ *   --bucket-ms N          time bucket that datums are lined up in for correlation (250 by default)
+ *   --min-correlation R    only report pairs with |r| of at least this (0.5 by default)
+ *   --threads N            files analyzed at once (one per core by default)
+ * </pre>
+ * Directories are searched for ".lsr" files. Every file is summarized on its own, since each one stands alone (see
+ * {@link SessionFormat}), split across a fork-join pool. For each datum that's its count, min, max, mean, standard
+ * deviation, 50th/90th/99th percentiles and spikes: samples more than {@link #SPIKE_SIGMAS} robust standard deviations
+ * (1.4826 × the median absolute deviation) away from the median, either way, since for a datum like FPS the stutter
+ * is a dip. The worst spike is the one furthest from the median, reported with its time and direction. Each pair of datums is correlated (Pearson's r) over
+ * the time buckets both have samples in.
+ * <p>
+ * Writes summary.csv and correlations.csv, and/or summary.json with both.
+ */
+public final class SessionAnalyzer {
+    public static final double SPIKE_SIGMAS = 3;
+    // fewer shared buckets than this and r means little
+    private static final int MIN_CORRELATION_BUCKETS = 10;
+
+    /** One datum in one file. worstSpikeSeconds is NaN and worstSpikeDirection null if it has no spikes. */
+    public record DatumSummary(String key, String unit, int count, double min, double max, double mean, double stddev,
+                               double p50, double p90, double p99, int spikes, double worstSpikeSeconds,
+                               String worstSpikeDirection) { }
+
+    public record Correlation(String keyA, String keyB, double r, int buckets) { }
+
+    public record FileSummary(Path file, long startedEpochMillis, List<DatumSummary> datums,
+                              List<Correlation> correlations) { }
+
+    private SessionAnalyzer() { }
+
+    public static void main(String[] args) {
+        Path out = Path.of(".");
+        String format = "both";
+        long bucketMillis = 250;
+        double minCorrelation = 0.5;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--out" -> out = Path.of(args[++i]);
+                    case "--format" -> format = args[++i];
+                    case "--bucket-ms" -> bucketMillis = Long.parseLong(args[++i]);
+                    case "--min-correlation" -> minCorrelation = Double.parseDouble(args[++i]);
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    default -> inputs.add(Path.of(args[i]));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            inputs.clear();
+        }
+        if (inputs.isEmpty() || !Set.of("csv", "json", "both").contains(format) || bucketMillis <= 0 || threads <= 0) {
+            System.err.println("Usage: SessionAnalyzer [--out DIR] [--format csv|json|both] [--bucket-ms N]"
+                    + " [--min-correlation R] [--threads N] <file or directory>...");
+            System.exit(2);
+        }
+
+        try {
+            List<Path> files = findFiles(inputs);
+            List<FileSummary> summaries = analyze(files, bucketMillis * 1000, minCorrelation, threads);
+
+            Files.createDirectories(out);
+            if (!format.equals("json")) {
+                writeSummaryCsv(summaries, out.resolve("summary.csv"));
+                writeCorrelationCsv(summaries, out.resolve("correlations.csv"));
+            }
+            if (!format.equals("csv")) writeJson(summaries, out.resolve("summary.json"));
+            System.out.println("Analyzed " + summaries.size() + " of " + files.size() + " session files into " + out.toAbsolutePath());
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Lestora Debug. Session analysis failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /** Every ".lsr" file among the inputs and under any directories, sorted. */
+    public static List<Path> findFiles(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> walk = Files.walk(input)) {
+                    walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(SessionFormat.EXTENSION))
+                            .forEach(files::add);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Summarize each file, several at a time. Files that can't be read are reported and left out.
+     *
+     * @param bucketMicros    time bucket datums are lined up in for correlation
+     * @param minCorrelation  only keep pairs with |r| of at least this
+     * @return in the same order as files
+     */
+    public static List<FileSummary> analyze(List<Path> files, long bucketMicros, double minCorrelation, int threads) {
+        if (files.isEmpty()) return List.of();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new FileTask(files, 0, files.size(), bucketMicros, minCorrelation));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // halves the file list until one file is left, then reads and summarizes it
+    private static final class FileTask extends RecursiveTask<List<FileSummary>> {
+        private final List<Path> files;
+        private final int from, to;
+        private final long bucketMicros;
+        private final double minCorrelation;
+
+        FileTask(List<Path> files, int from, int to, long bucketMicros, double minCorrelation) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.bucketMicros = bucketMicros;
+            this.minCorrelation = minCorrelation;
+        }
+
+        @Override
+        protected List<FileSummary> compute() {
+            if (to - from == 1) {
+                try {
+                    return List.of(summarize(SessionReader.read(files.get(from)), bucketMicros, minCorrelation));
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Lestora Debug. Skipping " + files.get(from) + ": " + e.getMessage());
+                    return List.of();
+                }
+            }
+
+            int middle = (from + to) >>> 1;
+            FileTask left = new FileTask(files, from, middle, bucketMicros, minCorrelation);
+            FileTask right = new FileTask(files, middle, to, bucketMicros, minCorrelation);
+            right.fork();
+            List<FileSummary> merged = new ArrayList<>(left.compute());
+            merged.addAll(right.join());
+            return merged;
+        }
+    }
+
+    public static FileSummary summarize(SessionReader.Session session, long bucketMicros, double minCorrelation) {
+        List<SessionReader.Series> series = new ArrayList<>(session.series());
+        series.removeIf(s -> s.size() == 0);
+        series.sort(Comparator.comparing(s -> s.key));
+
+        List<DatumSummary> datums = new ArrayList<>(series.size());
+        for (SessionReader.Series s : series) datums.add(summarize(s));
+        return new FileSummary(session.file(), session.startedEpochMillis(), datums,
+                correlate(series, bucketMicros, minCorrelation));
+    }
+
+    private static DatumSummary summarize(SessionReader.Series s) {
+        int n = s.size();
+        double mean = 0, m2 = 0;
+        for (int i = 0; i < n; i++) {
+            double delta = s.value(i) - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (s.value(i) - mean);
+        }
+        double stddev = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0;
+
+        double[] sorted = s.values();
+        Arrays.sort(sorted);
+        double median = percentile(sorted, 50);
+
+        double[] deviations = new double[n];
+        for (int i = 0; i < n; i++) deviations[i] = Math.abs(sorted[i] - median);
+        Arrays.sort(deviations);
+        // a mostly flat datum has no median deviation; fall back to the plain standard deviation
+        double sigma = 1.4826 * percentile(deviations, 50);
+        if (sigma == 0) sigma = stddev;
+
+        int spikes = 0;
+        double worst = 0;
+        double worstValue = 0;
+        long worstMicros = -1;
+        if (sigma > 0) {
+            double threshold = SPIKE_SIGMAS * sigma;
+            for (int i = 0; i < n; i++) {
+                double value = s.value(i);
+                double distance = Math.abs(value - median);
+                if (distance <= threshold) continue;
+                spikes++;
+                if (distance > worst) {
+                    worst = distance;
+                    worstValue = value;
+                    worstMicros = s.micros(i);
+                }
+            }
+        }
+
+        return new DatumSummary(s.key, s.unit, n, sorted[0], sorted[n - 1], mean, stddev,
+                median, percentile(sorted, 90), percentile(sorted, 99),
+                spikes, worstMicros < 0 ? Double.NaN : worstMicros / 1e6,
+                worstMicros < 0 ? null : worstValue > median ? "up" : "down");
+    }
+
+    // nearest rank
+    private static double percentile(double[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    // each datum averaged per bucket (NaN where it has no samples), then r over the buckets each pair shares
+    private static List<Correlation> correlate(List<SessionReader.Series> series, long bucketMicros, double minCorrelation) {
+        long end = 0;
+        for (SessionReader.Series s : series) end = Math.max(end, s.micros(s.size() - 1));
+        int buckets = (int) Math.min(Integer.MAX_VALUE - 8, end / bucketMicros + 1);
+
+        double[][] means = new double[series.size()][];
+        for (int i = 0; i < series.size(); i++) {
+            SessionReader.Series s = series.get(i);
+            double[] sums = new double[buckets];
+            int[] counts = new int[buckets];
+            for (int j = 0; j < s.size(); j++) {
+                int bucket = (int) (s.micros(j) / bucketMicros);
+                sums[bucket] += s.value(j);
+                counts[bucket]++;
+            }
+            for (int b = 0; b < buckets; b++) sums[b] = counts[b] == 0 ? Double.NaN : sums[b] / counts[b];
+            means[i] = sums;
+        }
+
+        List<Correlation> correlations = new ArrayList<>();
+        for (int a = 0; a < series.size(); a++) {
+            for (int b = a + 1; b < series.size(); b++) {
+                double[] x = means[a], y = means[b];
+                int n = 0;
+                double meanX = 0, meanY = 0, cxy = 0, cxx = 0, cyy = 0;
+                for (int i = 0; i < buckets; i++) {
+                    if (Double.isNaN(x[i]) || Double.isNaN(y[i])) continue;
+                    n++;
+                    double dx = x[i] - meanX;
+                    meanX += dx / n;
+                    double dy = y[i] - meanY;
+                    meanY += dy / n;
+                    cxy += dx * (y[i] - meanY);
+                    cxx += dx * (x[i] - meanX);
+                    cyy += dy * (y[i] - meanY);
+                }
+                if (n < MIN_CORRELATION_BUCKETS || cxx <= 0 || cyy <= 0) continue;
+                double r = cxy / Math.sqrt(cxx * cyy);
+                if (Math.abs(r) >= minCorrelation) correlations.add(new Correlation(series.get(a).key, series.get(b).key, r, n));
+            }
+        }
+        correlations.sort(Comparator.comparingDouble((Correlation c) -> -Math.abs(c.r())));
+        return correlations;
+    }
+
+    private static void writeSummaryCsv(List<FileSummary> summaries, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("file,started,key,unit,count,min,max,mean,stddev,p50,p90,p99,spikes,worst_spike_s,worst_spike_dir\n");
+            for (FileSummary summary : summaries) {
+                for (DatumSummary d : summary.datums()) {
+                    out.write(String.join(",", csv(summary.file().toString()), Long.toString(summary.startedEpochMillis()),
+                            csv(d.key()), csv(d.unit()), Integer.toString(d.count()), number(d.min()), number(d.max()),
+                            number(d.mean()), number(d.stddev()), number(d.p50()), number(d.p90()), number(d.p99()),
+                            Integer.toString(d.spikes()), Double.isNaN(d.worstSpikeSeconds()) ? "" : number(d.worstSpikeSeconds()),
+                            d.worstSpikeDirection() == null ? "" : d.worstSpikeDirection()));
+                    out.write('\n');
+                }
+            }
+        }
+    }
+
+    private static void writeCorrelationCsv(List<FileSummary> summaries, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("file,key_a,key_b,r,buckets\n");
+            for (FileSummary summary : summaries) {
+                for (Correlation c : summary.correlations()) {
+                    out.write(String.join(",", csv(summary.file().toString()), csv(c.keyA()), csv(c.keyB()),
+                            number(c.r()), Integer.toString(c.buckets())));
+                    out.write('\n');
+                }
+            }
+        }
+    }
+
+    private static void writeJson(List<FileSummary> summaries, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("{\"files\":[");
+            for (int f = 0; f < summaries.size(); f++) {
+                FileSummary summary = summaries.get(f);
+                out.write(f == 0 ? "\n" : ",\n");
+                out.write("{\"file\":" + json(summary.file().toString()) + ",\"started\":" + summary.startedEpochMillis() + ",\"datums\":[");
+                for (int i = 0; i < summary.datums().size(); i++) {
+                    DatumSummary d = summary.datums().get(i);
+                    out.write(i == 0 ? "\n  " : ",\n  ");
+                    out.write("{\"key\":" + json(d.key()) + ",\"unit\":" + json(d.unit()) + ",\"count\":" + d.count()
+                            + ",\"min\":" + jsonNumber(d.min()) + ",\"max\":" + jsonNumber(d.max()) + ",\"mean\":" + jsonNumber(d.mean())
+                            + ",\"stddev\":" + jsonNumber(d.stddev()) + ",\"p50\":" + jsonNumber(d.p50()) + ",\"p90\":" + jsonNumber(d.p90())
+                            + ",\"p99\":" + jsonNumber(d.p99()) + ",\"spikes\":" + d.spikes()
+                            + ",\"worstSpikeSeconds\":" + jsonNumber(d.worstSpikeSeconds())
+                            + ",\"worstSpikeDirection\":" + (d.worstSpikeDirection() == null ? "null" : json(d.worstSpikeDirection())) + "}");
+                }
+                out.write("],\"correlations\":[");
+                for (int i = 0; i < summary.correlations().size(); i++) {
+                    Correlation c = summary.correlations().get(i);
+                    out.write(i == 0 ? "\n  " : ",\n  ");
+                    out.write("{\"a\":" + json(c.keyA()) + ",\"b\":" + json(c.keyB()) + ",\"r\":" + jsonNumber(c.r())
+                            + ",\"buckets\":" + c.buckets() + "}");
+                }
+                out.write("]}");
+            }
+            out.write("\n]}\n");
+        }
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? number(value) : "null";
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String json(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
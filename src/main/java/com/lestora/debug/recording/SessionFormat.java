@@ -0,0 +1,52 @@
+package com.lestora.debug.recording;
+
+/**
+ * The layout of a recorded session file (".lsr"). Everything is little-endian.
+ * <p>
+ * A file starts with a 16 byte header:
+ * <pre>
+ *   4  magic "LSR1"
+ *   2  version (1)
+ *   2  reserved (0)
+ *   8  wall-clock time the file was started, in epoch milliseconds
+ * </pre>
+ * followed by blocks, each starting with a one byte tag:
+ * <pre>
+ *   'K'  key definitions
+ *        varint count, then per key:
+ *          varint column   the ID sample blocks use for this key
+ *          u8     type     {@link #TYPE_INT} or {@link #TYPE_FLOAT}
+ *          string key      e.g. "MinecraftData.Server.TickTimeMs"
+ *          string unit     e.g. "ms", empty if none
+ *
+ *   'S'  samples, stored column by column
+ *        varint rows
+ *        varint bytes, then rows × varint column
+ *        varint bytes, then rows × varint microseconds since the previous row (the first row: since the file started)
+ *        varint bytes, then a zigzag varint per row whose column is a TYPE_INT, in row order
+ *        varint bytes, then a float32 per row whose column is a TYPE_FLOAT, in row order
+ *
+ *   0    end of data; the rest of the file, if any, is zero
+ * </pre>
+ * Varints are unsigned LEB128, zigzag maps signed n to (n &lt;&lt; 1) ^ (n &gt;&gt; 63), and strings are a varint byte
+ * length followed by UTF-8. Every key is defined in a 'K' block before the first sample that uses it, and column IDs
+ * are only meaningful within one file.
+ * <p>
+ * Long sessions rotate into numbered files ("session-20260101-120000-001.lsr", "-002", ...), each with its own header
+ * and key definitions, so any single file can be read on its own. Only the newest few files of a session are kept.
+ */
+public final class SessionFormat {
+    public static final byte[] MAGIC = { 'L', 'S', 'R', '1' };
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final String EXTENSION = ".lsr";
+
+    public static final byte BLOCK_KEYS = 'K';
+    public static final byte BLOCK_SAMPLES = 'S';
+    public static final byte BLOCK_END = 0;
+
+    public static final byte TYPE_INT = 1;
+    public static final byte TYPE_FLOAT = 2;
+
+    private SessionFormat() { }
+}
@@ -0,0 +1,165 @@
+package com.lestora.debug.recording;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads one {@link SessionFormat} file back into a series of samples per key. Needs nothing but the JDK, so it can
+ * run outside the game, e.g. from {@link SessionAnalyzer}.
+ * <p>
+ * A file cut short by a crash reads up to the last whole block.
+ */
+public final class SessionReader {
+    /** Every sample one key got in a file, in the order they were recorded. */
+    public static final class Series {
+        public final String key;
+        public final String unit;
+        public final byte type;
+        // microseconds since the file was started
+        private long[] micros = new long[256];
+        private double[] values = new double[256];
+        private int size;
+
+        Series(String key, String unit, byte type) {
+            this.key = key;
+            this.unit = unit;
+            this.type = type;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /** @return when a sample was recorded, in microseconds since the file was started */
+        public long micros(int index) {
+            return micros[index];
+        }
+
+        public double value(int index) {
+            return values[index];
+        }
+
+        /** A copy of just the values. */
+        public double[] values() {
+            return Arrays.copyOf(values, size);
+        }
+
+        private void add(long time, double value) {
+            if (size == values.length) {
+                micros = Arrays.copyOf(micros, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            micros[size] = time;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /**
+     * A whole file, read.
+     *
+     * @param startedEpochMillis  wall-clock time the file was started
+     * @param series              one per key, in the order the keys were defined
+     */
+    public record Session(Path file, long startedEpochMillis, List<Series> series) { }
+
+    private SessionReader() { }
+
+    public static Session read(Path file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        byte[] magic = new byte[SessionFormat.MAGIC.length];
+        if (in.remaining() >= SessionFormat.HEADER_BYTES) in.get(magic);
+        if (!Arrays.equals(magic, SessionFormat.MAGIC)) throw new IOException("Not a Lestora session file: " + file);
+        short version = in.getShort();
+        if (version != SessionFormat.VERSION) throw new IOException("Unsupported session version " + version + ": " + file);
+        in.getShort();
+        long started = in.getLong();
+
+        List<Series> series = new ArrayList<>();
+        Map<String, Series> byKey = new HashMap<>();
+        Series[] columns = new Series[64];
+        long time = 0;
+
+        try {
+            while (in.hasRemaining()) {
+                byte tag = in.get();
+                if (tag == SessionFormat.BLOCK_END) break;
+
+                if (tag == SessionFormat.BLOCK_KEYS) {
+                    int count = (int) getVarint(in);
+                    for (int i = 0; i < count; i++) {
+                        int column = (int) getVarint(in);
+                        byte type = in.get();
+                        String key = getString(in);
+                        String unit = getString(in);
+                        Series s = byKey.computeIfAbsent(key, k -> {
+                            Series created = new Series(k, unit, type);
+                            series.add(created);
+                            return created;
+                        });
+                        if (column >= columns.length) columns = Arrays.copyOf(columns, Math.max(columns.length * 2, column + 1));
+                        columns[column] = s;
+                    }
+                } else if (tag == SessionFormat.BLOCK_SAMPLES) {
+                    int rows = (int) getVarint(in);
+                    ByteBuffer columnIds = slice(in);
+                    ByteBuffer times = slice(in);
+                    ByteBuffer ints = slice(in);
+                    ByteBuffer floats = slice(in).order(ByteOrder.LITTLE_ENDIAN);
+                    for (int row = 0; row < rows; row++) {
+                        int column = (int) getVarint(columnIds);
+                        time += getVarint(times);
+                        Series s = column < columns.length ? columns[column] : null;
+                        if (s == null) throw new IOException("Sample for undefined column " + column + ": " + file);
+                        if (s.type == SessionFormat.TYPE_FLOAT) {
+                            s.add(time, floats.getFloat());
+                        } else {
+                            long zigzag = getVarint(ints);
+                            s.add(time, (zigzag >>> 1) ^ -(zigzag & 1));
+                        }
+                    }
+                } else {
+                    throw new IOException("Unknown block '" + (char) tag + "' at byte " + (in.position() - 1) + ": " + file);
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            // the writer died mid-block; keep what was whole
+        }
+
+        return new Session(file, started, series);
+    }
+
+    // the next length-prefixed column, as its own buffer; in moves past it
+    private static ByteBuffer slice(ByteBuffer in) {
+        int length = (int) getVarint(in);
+        ByteBuffer column = in.slice(in.position(), length);
+        in.position(in.position() + length);
+        return column;
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) getVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
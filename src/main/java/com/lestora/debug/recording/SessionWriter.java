@@ -0,0 +1,419 @@
+package com.lestora.debug.recording;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Writes one recording session in the {@link SessionFormat} layout, on its own thread.
+ * <p>
+ * The recording thread only copies primitives into a preallocated single-producer ring and returns; it never blocks,
+ * and if the writer falls a whole ring behind, samples are dropped and counted rather than waited on. The writer
+ * thread encodes what's queued into column blocks and appends them to a memory-mapped file, mapping it a region at a
+ * time as it grows. Once a file reaches its size limit the session moves on to the next numbered file, and only the
+ * newest few are kept, so a session never takes more than maxFileBytes × maxFiles of disk. The directory as a whole is
+ * kept under maxDirectoryBytes too: when a session starts and at every rotation, the oldest ".lsr" files in it,
+ * whichever session they belong to, are deleted until the files there plus a full new one fit. Files are only ever
+ * created, never overwritten, so a name already on disk fails instead of clobbering an older session.
+ * <p>
+ * Only one thread may call {@link #define}, {@link #offerInt} and {@link #offerFloat}.
+ */
+public final class SessionWriter implements AutoCloseable {
+    public static final long DEFAULT_MAX_FILE_BYTES = 16L * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 8;
+    public static final long DEFAULT_MAX_DIRECTORY_BYTES = 512L * 1024 * 1024;
+
+    private static final int QUEUE_CAPACITY = 1 << 16;
+    private static final int MAX_ROWS = 4096;
+    private static final int REGION_BYTES = 1024 * 1024;
+    private static final long IDLE_NANOS = 5_000_000L;
+
+    private record KeyDef(int column, String key, String unit, byte type) { }
+
+    private final Path directory;
+    private final String sessionName;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final long maxDirectoryBytes;
+    private final Thread thread;
+
+    // the ring: written by the recording thread up to head, read by the writer thread from tail
+    private final int[] queuedColumns = new int[QUEUE_CAPACITY];
+    private final long[] queuedNanos = new long[QUEUE_CAPACITY];
+    private final long[] queuedBits = new long[QUEUE_CAPACITY];
+    private volatile long head;
+    private volatile long tail;
+    private final Queue<KeyDef> pendingDefs = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+    private long dropped;
+
+    // writer thread only
+    private final List<KeyDef> defs = new ArrayList<>();
+    private byte[] types = new byte[64];
+    private final ByteBuffer columnIds = ByteBuffer.allocate(MAX_ROWS * 5);
+    private final ByteBuffer times = ByteBuffer.allocate(MAX_ROWS * 10);
+    private final ByteBuffer ints = ByteBuffer.allocate(MAX_ROWS * 10);
+    private final ByteBuffer floats = ByteBuffer.allocate(MAX_ROWS * 4).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer block = ByteBuffer.allocate(MAX_ROWS * 29 + 64);
+    private final Deque<Path> files = new ArrayDeque<>();
+    private FileChannel channel;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private long position;
+    private long fileStartNanos;
+    private long lastMicros;
+
+    private volatile long samplesWritten;
+    private volatile long bytesWritten;
+    private volatile int fileCount;
+    private volatile boolean failed;
+    private final CompletableFuture<SessionWriter> finished = new CompletableFuture<>();
+
+    /**
+     * Open the session's first file and start writing.
+     *
+     * @param sessionName   file name prefix, e.g. "session-20260101-120000"
+     * @param maxFileBytes  rotate to the next file once one would grow past this
+     * @param maxFiles      how many of the session's newest files to keep
+     */
+    public SessionWriter(Path directory, String sessionName, long maxFileBytes, int maxFiles) throws IOException {
+        this(directory, sessionName, maxFileBytes, maxFiles, DEFAULT_MAX_DIRECTORY_BYTES);
+    }
+
+    /** @param maxDirectoryBytes  how much every session in the directory may take together; at least one full file */
+    public SessionWriter(Path directory, String sessionName, long maxFileBytes, int maxFiles, long maxDirectoryBytes) throws IOException {
+        this.directory = directory;
+        this.sessionName = sessionName;
+        this.maxFileBytes = Math.max(REGION_BYTES, maxFileBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.maxDirectoryBytes = Math.max(this.maxFileBytes, maxDirectoryBytes);
+
+        Files.createDirectories(directory);
+        openFile();
+
+        thread = new Thread(this::run, "Lestora session writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Name a column before offering its first sample. */
+    public void define(int column, String key, String unit, byte type) {
+        pendingDefs.add(new KeyDef(column, key, unit == null ? "" : unit, type));
+    }
+
+    /** @return false if the writer is a whole queue behind, and the sample was dropped */
+    public boolean offerInt(int column, long nanos, long value) {
+        return offer(column, nanos, value);
+    }
+
+    public boolean offerFloat(int column, long nanos, double value) {
+        return offer(column, nanos, Double.doubleToRawLongBits(value));
+    }
+
+    private boolean offer(int column, long nanos, long bits) {
+        long h = head;
+        if (h - tail >= QUEUE_CAPACITY) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) (h & (QUEUE_CAPACITY - 1));
+        queuedColumns[slot] = column;
+        queuedNanos[slot] = nanos;
+        queuedBits[slot] = bits;
+        head = h + 1;
+        return true;
+    }
+
+    /**
+     * Stop taking samples. Everything already offered is still written out on the writer thread, and the file closed
+     * after; this returns straight away, see {@link #whenFinished()}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /** Completes on the writer thread once the session's last file is closed, whether or not writing failed. */
+    public CompletableFuture<SessionWriter> whenFinished() {
+        return finished;
+    }
+
+    /** Whether a session with this name already has files in the directory, e.g. one started the same second. */
+    public static boolean exists(Path directory, String sessionName) throws IOException {
+        if (!Files.isDirectory(directory)) return false;
+        Pattern file = Pattern.compile(Pattern.quote(sessionName) + "-\\d{3,}" + Pattern.quote(SessionFormat.EXTENSION));
+        try (var paths = Files.list(directory)) {
+            return paths.anyMatch(path -> file.matcher(path.getFileName().toString()).matches());
+        }
+    }
+
+    public long getSamplesWritten() {
+        return samplesWritten;
+    }
+
+    public long getSamplesDropped() {
+        return dropped;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /** How many files the session has started, including any rotated away. */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /** True once writing hit an I/O error and stopped. */
+    public boolean hasFailed() {
+        return failed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public String getSessionName() {
+        return sessionName;
+    }
+
+    private void run() {
+        try {
+            pruneDirectory();
+            while (true) {
+                // read the flag before the ring, so whatever was offered before close() still gets written
+                boolean stopping = !running;
+                long h = head;
+                writeDefs();
+                if (h == tail) {
+                    if (stopping) break;
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                writeSamples((int) Math.min(h - tail, MAX_ROWS));
+            }
+            finishFile();
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            System.err.println("Lestora Debug. Stopped recording " + sessionName + ": " + e.getMessage());
+            try {
+                finishFile();
+            } catch (IOException | RuntimeException ignored) {
+            }
+        } finally {
+            finished.complete(this);
+        }
+    }
+
+    private void writeDefs() throws IOException {
+        if (pendingDefs.isEmpty()) return;
+        List<KeyDef> added = new ArrayList<>();
+        for (KeyDef def; (def = pendingDefs.poll()) != null; ) {
+            if (def.column() >= types.length) types = Arrays.copyOf(types, Math.max(types.length * 2, def.column() + 1));
+            types[def.column()] = def.type();
+            defs.add(def);
+            added.add(def);
+        }
+        writeKeyBlock(added);
+    }
+
+    private void writeKeyBlock(List<KeyDef> keys) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(16 + keys.size() * 16 + keys.stream().mapToInt(d -> 3 * (d.key().length() + d.unit().length())).sum());
+        out.put(SessionFormat.BLOCK_KEYS);
+        putVarint(out, keys.size());
+        for (KeyDef def : keys) {
+            putVarint(out, def.column());
+            out.put(def.type());
+            putString(out, def.key());
+            putString(out, def.unit());
+        }
+        out.flip();
+        append(out);
+    }
+
+    private void writeSamples(int rows) throws IOException {
+        columnIds.clear();
+        times.clear();
+        ints.clear();
+        floats.clear();
+
+        // rotate first, so the row times below are relative to the file they end up in
+        if (position + block.capacity() + 1 > maxFileBytes) rotate();
+
+        long t = tail;
+        for (int i = 0; i < rows; i++, t++) {
+            int slot = (int) (t & (QUEUE_CAPACITY - 1));
+            int column = queuedColumns[slot];
+            long micros = (queuedNanos[slot] - fileStartNanos) / 1000;
+            long delta = Math.max(0, micros - lastMicros);
+            lastMicros = Math.max(lastMicros, micros);
+
+            putVarint(columnIds, column);
+            putVarint(times, delta);
+            long bits = queuedBits[slot];
+            if (column < types.length && types[column] == SessionFormat.TYPE_FLOAT) {
+                floats.putFloat((float) Double.longBitsToDouble(bits));
+            } else {
+                putVarint(ints, (bits << 1) ^ (bits >> 63));
+            }
+        }
+        tail = t;
+
+        block.clear();
+        block.put(SessionFormat.BLOCK_SAMPLES);
+        putVarint(block, rows);
+        putColumn(columnIds);
+        putColumn(times);
+        putColumn(ints);
+        putColumn(floats);
+        block.flip();
+        append(block);
+        samplesWritten += rows;
+    }
+
+    private void putColumn(ByteBuffer column) {
+        column.flip();
+        putVarint(block, column.remaining());
+        block.put(column);
+    }
+
+    // append to the current file, always leaving room for the end tag after it
+    private void append(ByteBuffer bytes) throws IOException {
+        int length = bytes.remaining();
+        if (region == null || position + length + 1 > regionStart + region.capacity()) {
+            if (region != null) region.force();
+            region = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(REGION_BYTES, length + 1));
+            regionStart = position;
+        }
+        region.position((int) (position - regionStart));
+        region.put(bytes);
+        position += length;
+        bytesWritten += length;
+    }
+
+    private void openFile() throws IOException {
+        int index = fileCount + 1;
+        Path file = directory.resolve(String.format(Locale.ROOT, "%s-%03d%s", sessionName, index, SessionFormat.EXTENSION));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        region = null;
+        position = 0;
+        fileStartNanos = System.nanoTime();
+        lastMicros = 0;
+        fileCount = index;
+
+        ByteBuffer header = ByteBuffer.allocate(SessionFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(SessionFormat.MAGIC);
+        header.putShort(SessionFormat.VERSION);
+        header.putShort((short) 0);
+        header.putLong(System.currentTimeMillis());
+        header.flip();
+        append(header);
+        // every file has to stand on its own
+        if (!defs.isEmpty()) writeKeyBlock(defs);
+
+        files.addLast(file);
+        while (files.size() > maxFiles) {
+            Path oldest = files.removeFirst();
+            try {
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                System.err.println("Lestora Debug. Couldn't delete old recording " + oldest + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void rotate() throws IOException {
+        finishFile();
+        openFile();
+        pruneDirectory();
+    }
+
+    // delete the directory's oldest recordings, from any session, until there's room for the current file to fill up
+    private void pruneDirectory() throws IOException {
+        Path current = files.peekLast();
+        List<Path> others = new ArrayList<>();
+        long total = maxFileBytes;
+        try (var paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.equals(current) || !path.getFileName().toString().endsWith(SessionFormat.EXTENSION)) continue;
+                others.add(path);
+                total += sizeOf(path);
+            }
+        }
+        if (total <= maxDirectoryBytes) return;
+
+        others.sort(Comparator.comparingLong(SessionWriter::lastModified));
+        for (Path oldest : others) {
+            if (total <= maxDirectoryBytes) break;
+            long size = sizeOf(oldest);
+            try {
+                Files.deleteIfExists(oldest);
+                files.remove(oldest);
+                total -= size;
+            } catch (IOException e) {
+                System.err.println("Lestora Debug. Couldn't delete old recording " + oldest + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // 0 for a file another session has just deleted
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void finishFile() throws IOException {
+        if (channel == null) return;
+        if (region != null) {
+            region.position((int) (position - regionStart));
+            region.put(SessionFormat.BLOCK_END);
+            region.force();
+            region = null;
+        }
+        try {
+            // some platforms refuse while the file is still mapped; readers stop at the end tag either way
+            channel.truncate(position + 1);
+        } catch (IOException ignored) {
+        }
+        channel.close();
+        channel = null;
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(out, bytes.length);
+        out.put(bytes);
+    }
+}